@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Builds the startup-optimized distribution in target/fast-startup:
+#   1. the jar with Spring AOT bean definitions (mvn -Pfast-startup),
+#   2. extracted so the JVM can map its classes from a CDS archive (a nested fat jar cannot be archived),
+#   3. an AppCDS archive recorded by a training run that refreshes the context and exits.
+# Run the result with scripts/startup-time.sh or:
+#   java -XX:SharedArchiveFile=target/fast-startup/application.jsa -Dspring.aot.enabled=true \
+#        -Dspring.profiles.active=fast-startup -jar target/fast-startup/customer-service-0.0.1-SNAPSHOT.jar
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+OUT=target/fast-startup
+JAR=customer-service-0.0.1-SNAPSHOT.jar
+
+mvn -B -q -Pfast-startup -DskipTests clean package
+rm -rf "$OUT"
+java -Djarmode=tools -jar "target/$JAR" extract --destination "$OUT"
+
+# The archive only helps a JVM started with the same classpath and flags, so train with the production ones.
+java -XX:ArchiveClassesAtExit="$OUT/application.jsa" \
+     -Dspring.context.exit=onRefresh \
+     -Dspring.aot.enabled=true \
+     -Dspring.profiles.active=fast-startup \
+     -jar "$OUT/$JAR" --server.port=0 > "$OUT/training.log" 2>&1
+
+echo "Built $OUT/$JAR and $OUT/application.jsa"
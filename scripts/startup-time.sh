@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Measures cold start as time from JVM launch to the first 200 from GET /api/v1/customer (logging in first),
+# for the default configuration and for the fast-startup profile with and without the CDS archive.
+# Run scripts/build-fast-startup.sh first.
+# usage: scripts/startup-time.sh [runs]    (default 5 runs per mode; PORT overrides 8085)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8085}
+OUT=target/fast-startup
+JAR=$OUT/customer-service-0.0.1-SNAPSHOT.jar
+LOGIN='{"username":"admin","password":"adminPass"}'
+
+if [ ! -f "$JAR" ] || [ ! -f "$OUT/application.jsa" ]; then
+    echo "Missing $JAR or $OUT/application.jsa; run scripts/build-fast-startup.sh first" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints milliseconds until the first successful customer listing.
+run_once() {
+    local log=$1; shift
+    local start token="" status pid
+    start=$(now_ms)
+    java "$@" -jar "$JAR" --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+    while :; do
+        if [ -z "$token" ]; then
+            token=$(curl -s -m 1 -X POST -H 'Content-Type: application/json' -d "$LOGIN" \
+                "http://localhost:$PORT/auth/login" | sed -n 's/.*"jwtToken":"\([^"]*\)".*/\1/p' || true)
+        fi
+        if [ -n "$token" ]; then
+            status=$(curl -s -m 1 -o /dev/null -w '%{http_code}' -H "Authorization: Bearer $token" \
+                "http://localhost:$PORT/api/v1/customer" || true)
+            [ "$status" = "200" ] && break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited; see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    echo $(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+measure() {
+    local mode=$1; shift
+    local times=() t
+    for ((i = 0; i < RUNS; i++)); do
+        t=$(run_once "$OUT/startup-$mode.log" "$@")
+        times+=("$t")
+    done
+    local sorted
+    sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+    printf '%-22s median %6s ms   min %6s ms   runs: %s\n' "$mode" \
+        "$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")" "$(echo "$sorted" | head -1)" "${times[*]}"
+}
+
+measure default
+measure aot+lazy -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup
+measure aot+lazy+cds -XX:SharedArchiveFile="$OUT/application.jsa" \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup
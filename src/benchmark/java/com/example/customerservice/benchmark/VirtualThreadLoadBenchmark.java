@@ -0,0 +1,199 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.CustomerServiceApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application once on platform threads and once with the {@code virtual-threads} profile, drives
+ * {@code GET /api/v1/customer/{id}} and {@code GET /api/v1/customer/page} with many concurrent clients, and prints
+ * throughput and latency percentiles for both modes.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="--concurrency=400 --seconds=20"
+ * </pre>
+ * Options: {@code --concurrency} (default 200), {@code --seconds} (15), {@code --warmup} (5), {@code --customers}
+ * (1000) and {@code --pool} (JDBC pool size used in both modes, default 20).
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"jwtToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    private record Result(String mode, long requests, long errors, double seconds, long[] latenciesMicros) {
+
+        long percentile(double p) {
+            if (latenciesMicros.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * latenciesMicros.length) - 1;
+            return latenciesMicros[Math.max(0, Math.min(index, latenciesMicros.length - 1))];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "15"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int customers = Integer.parseInt(options.getOrDefault("customers", "1000"));
+        int pool = Integer.parseInt(options.getOrDefault("pool", "20"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.add(run(virtual, concurrency, seconds, warmup, customers, pool));
+        }
+
+        System.out.printf("%nconcurrency=%d duration=%ds customers=%d jdbcPool=%d%n", concurrency, seconds, customers, pool);
+        System.out.printf("%-10s %12s %10s %10s %10s %10s%n", "mode", "req/s", "errors", "p50(ms)", "p99(ms)", "max(ms)");
+        for (Result result : results) {
+            System.out.printf("%-10s %12.0f %10d %10.2f %10.2f %10.2f%n",
+                    result.mode(),
+                    result.requests() / result.seconds(),
+                    result.errors(),
+                    result.percentile(50) / 1000.0,
+                    result.percentile(99) / 1000.0,
+                    result.percentile(100) / 1000.0);
+        }
+    }
+
+    private static Result run(boolean virtual, int concurrency, int seconds, int warmup, int customers, int pool)
+            throws Exception {
+        SpringApplication application = new SpringApplication(CustomerServiceApplication.class);
+        if (virtual) {
+            application.setAdditionalProfiles("virtual-threads");
+        }
+        String[] appArgs = {
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.datasource.hikari.maximum-pool-size=" + pool,
+                // Measure the thread model, not admission control.
+                "--spring.app.maxConcurrentRequests=0"
+        };
+        try (ConfigurableApplicationContext context = application.run(appArgs);
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().executor(clientThreads).build();
+            String token = login(client, baseUrl);
+            seed(client, baseUrl, token, customers);
+
+            drive(virtual, client, baseUrl, token, concurrency, warmup, customers);
+            return drive(virtual, client, baseUrl, token, concurrency, seconds, customers);
+        }
+    }
+
+    private static Result drive(boolean virtual, HttpClient client, String baseUrl, String token, int concurrency,
+                                int seconds, int customers) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        List<Future<long[]>> workers = new ArrayList<>();
+        long[] errors = new long[concurrency];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                int workerIndex = worker;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String path = random.nextInt(4) == 0
+                                ? "/api/v1/customer/page?size=20"
+                                : "/api/v1/customer/" + (1 + random.nextInt(customers));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .header("Authorization", "Bearer " + token)
+                                .GET()
+                                .build();
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        if (status != 200) {
+                            errors[workerIndex]++;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = (System.nanoTime() - sent) / 1000;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] all = new long[0];
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        Arrays.sort(all);
+        return new Result(virtual ? "virtual" : "platform", all.length, Arrays.stream(errors).sum(), elapsed, all);
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"adminPass\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static void seed(HttpClient client, String baseUrl, String token, int customers) throws Exception {
+        StringBuilder body = new StringBuilder("{\"customers\":[");
+        for (int i = 0; i < customers; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"firstname\":\"first").append(i)
+                    .append("\",\"lastname\":\"last").append(i)
+                    .append("\",\"phone\":\"08").append(String.format("%08d", i))
+                    .append("\",\"email\":\"customer").append(i).append("@example.com\"}");
+        }
+        body.append("]}");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/customer/bulk"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.CustomerServiceApplication;
+import com.example.customerservice.model.entity.CustomerEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository reads against the in-memory H2 database, with the application context booted once per fork
+ * (no web server) and {@code customers} rows seeded up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerRepositoryBenchmark {
+
+    @Param({"10000"})
+    public int customers;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(CustomerServiceApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        customerRepository = context.getBean(CustomerRepository.class);
+
+        List<CustomerEntity> batch = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            CustomerEntity customer = new CustomerEntity();
+            customer.setFirstname("first" + i);
+            customer.setLastname("last" + i);
+            customer.setPhone("08" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            batch.add(customer);
+            if (batch.size() == 500) {
+                customerRepository.insertAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            customerRepository.insertAll(batch);
+        }
+        maxId = customerRepository.findAll().stream().mapToLong(CustomerEntity::getId).max().orElse(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<CustomerEntity> findById() {
+        return customerRepository.findById(1 + ThreadLocalRandom.current().nextLong(maxId));
+    }
+
+    @Benchmark
+    public List<CustomerEntity> findPage() {
+        long afterId = ThreadLocalRandom.current().nextLong(Math.max(1, maxId - pageSize));
+        return customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.customerservice.security;
+
+import com.example.customerservice.utils.JwtUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link AuthTokenFilter#doFilterInternal} with a valid bearer token, in both
+ * {@code spring.app.authMode} settings. The user store is an in-memory lambda, so {@code lookup} measures the
+ * user cache hit path rather than JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    @Param({"lookup", "claims"})
+    public String authMode;
+
+    private AuthTokenFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() throws IOException {
+        JwtKeyRing keyRing = new JwtKeyRing(Files.createTempDirectory("jwt-keys").toString(), 604800000, 86400000, 600000);
+        JwtUtils jwtUtils = new JwtUtils(keyRing, 600000, 86400000, 10000, 100000, 1000000, new SimpleMeterRegistry());
+        UserDetails user = User.withUsername("user1").password("").roles("USER").build();
+        UserDetailsService userDetailsService = username -> user;
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "userCache", new TtlUserCache(60000, 10000));
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/customer/1");
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateTokenFromUsername(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public void doFilterInternal(Blackhole blackhole) throws ServletException, IOException {
+        filter.doFilterInternal(request, response, chain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
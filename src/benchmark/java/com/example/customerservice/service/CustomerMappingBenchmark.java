@@ -0,0 +1,73 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping, for a single customer and for a full {@link CustomerService#getAllCustomers()} list.
+ * The repository is a proxy returning prebuilt entities so only the service-side work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    @Param({"100", "1000"})
+    public int customers;
+
+    private CustomerService customerService;
+    private CustomerEntity entity;
+
+    @Setup
+    public void setUp() {
+        List<CustomerEntity> entities = new ArrayList<>(customers);
+        for (long id = 1; id <= customers; id++) {
+            entities.add(new CustomerEntity(id, "first" + id, "last" + id, "08" + id, "customer" + id + "@example.com"));
+        }
+        entity = entities.get(0);
+
+        CustomerRepository repository = (CustomerRepository) Proxy.newProxyInstance(
+                CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                        return entities;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        customerService = new CustomerService(repository, new CustomerCache(10000, 60000),
+                new CustomerContactIndex(repository, 10000, new SimpleMeterRegistry()),
+                new CustomerChangeFeed(1024, 10, 15000, new SimpleMeterRegistry()), 50, 500, 500, 10000);
+    }
+
+    @Benchmark
+    public CustomerResponse convertToResponse() {
+        return customerService.convertToResponse(entity);
+    }
+
+    @Benchmark
+    public List<CustomerResponse> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+}
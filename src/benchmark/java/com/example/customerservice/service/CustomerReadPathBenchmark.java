@@ -0,0 +1,93 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.CustomerServiceApplication;
+import com.example.customerservice.model.request.CustomerRequest;
+import com.example.customerservice.model.response.CustomerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity read path ({@code findById}/{@code findAll} + mapping) against the DTO projection path for the same
+ * customer GETs, on H2 with the context booted once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerReadPathBenchmark {
+
+    @Param({"1000"})
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(CustomerServiceApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                "--spring.app.customer.maxBulkSize=" + customers,
+                // Measure the database read paths, not the by-id cache.
+                "--spring.app.customer.cacheSize=0");
+        customerService = context.getBean(CustomerService.class);
+
+        List<CustomerRequest> requests = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            requests.add(new CustomerRequest(null, "first" + i, "last" + i, "08" + i, "customer" + i + "@example.com"));
+        }
+        ids = customerService.createCustomers(requests).getIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<CustomerResponse> getByIdEntity() {
+        return customerService.getCustomerById(randomId());
+    }
+
+    @Benchmark
+    public Optional<CustomerResponse> getByIdProjection() {
+        return customerService.getCustomerByIdProjected(randomId());
+    }
+
+    @Benchmark
+    public List<CustomerResponse> getAllEntity() {
+        return customerService.getAllCustomers();
+    }
+
+    @Benchmark
+    public List<CustomerResponse> getAllProjection() {
+        return customerService.getAllCustomersProjected();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.customerservice.utils;
+
+import com.example.customerservice.security.JwtKeyRing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification. {@code cached} uses the verified-token cache as configured in production,
+ * {@code uncached} has it disabled so every call pays for the ES256 signature check and claims parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils cached;
+    private JwtUtils uncached;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        JwtKeyRing keyRing = new JwtKeyRing(Files.createTempDirectory("jwt-keys").toString(), 604800000, 86400000, 600000);
+        cached = new JwtUtils(keyRing, 600000, 86400000, 10000, 100000, 1000000, new SimpleMeterRegistry());
+        uncached = new JwtUtils(keyRing, 600000, 86400000, 0, 100000, 1000000, new SimpleMeterRegistry());
+        user = User.withUsername("user1").password("").roles("USER").build();
+        token = cached.generateTokenFromUsername(user);
+    }
+
+    @Benchmark
+    public String generateTokenFromUsername() {
+        return cached.generateTokenFromUsername(user);
+    }
+
+    @Benchmark
+    public boolean isValidCached() {
+        return cached.isValid(token);
+    }
+
+    @Benchmark
+    public boolean isValidUncached() {
+        return uncached.isValid(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtTokenCached() {
+        return cached.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtTokenUncached() {
+        return uncached.getUserNameFromJwtToken(token);
+    }
+}
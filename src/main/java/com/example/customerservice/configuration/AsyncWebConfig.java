@@ -0,0 +1,42 @@
+package com.example.customerservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncWebConfig {
+
+    /**
+     * Writes {@code StreamingResponseBody} responses. Without it MVC shares Boot's {@code applicationTaskExecutor}
+     * (8 threads, unbounded queue) with everything else. When {@code mvcAsyncThreads} bodies are being written and
+     * {@code mvcAsyncQueueCapacity} more are waiting, further streamed requests get 503 instead of queueing.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(@Value("${spring.app.mvcAsyncThreads}") int threads,
+                                                   @Value("${spring.app.mvcAsyncQueueCapacity}") int queueCapacity,
+                                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setVirtualThreads(virtual);
+        return executor;
+    }
+
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(ThreadPoolTaskExecutor mvcAsyncExecutor,
+                                                   @Value("${spring.mvc.async.request-timeout}") long timeoutMs) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(mvcAsyncExecutor);
+                configurer.setDefaultTimeout(timeoutMs);
+            }
+        };
+    }
+}
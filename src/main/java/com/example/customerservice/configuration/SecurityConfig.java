@@ -2,7 +2,12 @@ package com.example.customerservice.configuration;
 
 import com.example.customerservice.security.AuthEntryPointJwt;
 import com.example.customerservice.security.AuthTokenFilter;
+import com.example.customerservice.security.CostAwareBCryptPasswordEncoder;
+import com.example.customerservice.security.JdbcPasswordUpgradeService;
+import com.example.customerservice.security.TtlUserCache;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,17 +18,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.sql.DataSource;
-import java.security.SecureRandom;
-import java.util.Base64;
 import java.util.List;
 
 @Configuration
@@ -34,6 +38,9 @@ public class SecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Value("${spring.app.bcryptStrength}")
+    private int bcryptStrength = 10;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -43,9 +50,14 @@ public class SecurityConfig {
     SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests(authorizeRequests ->
                 authorizeRequests
+                        // Streaming responses finish on an async dispatch; the request was already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/h2-console/**",
-                                "/auth/**")
+                                "/auth/**",
+                                "/.well-known/jwks.json",
+                                "/actuator/health",
+                                "/actuator/prometheus")
                         .permitAll()
                         .anyRequest().authenticated());
         http.sessionManagement(
@@ -63,8 +75,11 @@ public class SecurityConfig {
             cors.configurationSource(request -> {
                 var corsConfiguration = new org.springframework.web.cors.CorsConfiguration();
                 corsConfiguration.setAllowedOrigins(List.of("http://localhost:4200"));
-                corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
-                corsConfiguration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+                corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE"));
+                // Conditional GETs and change feed resumes send these; browsers drop unlisted response headers.
+                corsConfiguration.setAllowedHeaders(List.of("Authorization", "Content-Type",
+                        "If-None-Match", "If-Modified-Since", "Last-Event-ID"));
+                corsConfiguration.setExposedHeaders(List.of("ETag", "Last-Modified", "Location", "Retry-After"));
                 return corsConfiguration;
             });
         });
@@ -76,21 +91,43 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserDetailsService userDetailsService(DataSource dataSource) {
-        return new JdbcUserDetailsManager(dataSource);
+    public UserCache userCache(@Value("${spring.app.userCacheTtlMs}") long userCacheTtlMs,
+                               @Value("${spring.app.userCacheSize}") int userCacheSize) {
+        return new TtlUserCache(userCacheTtlMs, userCacheSize);
+    }
+
+    @Bean
+    public UserDetailsService userDetailsService(DataSource dataSource, UserCache userCache) {
+        JdbcUserDetailsManager userDetailsManager = new JdbcUserDetailsManager(dataSource);
+        // Lets user updates, deletes and password changes evict the cached copy.
+        userDetailsManager.setUserCache(userCache);
+        return userDetailsManager;
+    }
+
+    /**
+     * Picked up by the authentication manager so hashes made with an outdated BCrypt cost are rewritten on
+     * the next successful login.
+     */
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService(DataSource dataSource, UserCache userCache) {
+        return new JdbcPasswordUpgradeService(dataSource, userCache);
     }
 
+    /**
+     * Seeds the demo users with BCrypt hashes (cost 10) computed ahead of time, so startup does no hashing.
+     * When {@code spring.app.bcryptStrength} differs, the first login rehashes them at the configured cost.
+     */
     @Bean
     public CommandLineRunner initData(UserDetailsService userDetailsService) {
         return args -> {
-            createUser(userDetailsService, "user1", "userPass", "USER");
-            createUser(userDetailsService, "admin", "adminPass", "ADMIN");
+            createUser(userDetailsService, "user1", "$2a$10$j4cmUtI9fbuxhXAiTW.d1uRd4vNzND08qadI1nsBDyMHzJpWg5nny", "USER");
+            createUser(userDetailsService, "admin", "$2a$10$kxxP.c8tq1mPQaBWl.fE5eBi8O0NUSULuWNlS82nMqKeTNv9ErWuK", "ADMIN");
         };
     }
 
-    private void createUser(UserDetailsService userDetailsService, String username, String password, String role) {
+    private void createUser(UserDetailsService userDetailsService, String username, String passwordHash, String role) {
         UserDetails user = User.withUsername(username)
-                .password(passwordEncoder().encode(password))
+                .password(passwordHash)
                 .roles(role)
                 .build();
         ((JdbcUserDetailsManager) userDetailsService).createUser(user);
@@ -98,19 +135,11 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new CostAwareBCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration builder) throws Exception {
         return builder.getAuthenticationManager();
     }
-
-    @Bean
-    public String jwtSecret() {
-        SecureRandom secureRandom = new SecureRandom();
-        byte[] key = new byte[32];
-        secureRandom.nextBytes(key);
-        return Base64.getEncoder().encodeToString(key);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.customerservice.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization=true} (fast-startup profile) the entity manager factory is
+     * still built during startup: deferring Hibernate bootstrap and schema creation to the first request would
+     * only move the cold start into that request's latency.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class);
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.customerservice.controller;
 
+import com.example.customerservice.model.request.BulkRegisterRequest;
 import com.example.customerservice.model.request.LoginRequest;
+import com.example.customerservice.model.request.RefreshTokenRequest;
 import com.example.customerservice.model.request.RegisterRequest;
+import com.example.customerservice.model.response.BulkRegisterResponse;
 import com.example.customerservice.model.response.LoginResponse;
 import com.example.customerservice.model.response.RegisterResponse;
+import com.example.customerservice.security.LoginRateLimiter;
 import com.example.customerservice.service.AuthenticationService;
+import com.example.customerservice.service.UserProvisioningService;
+import com.example.customerservice.utils.JwtUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,15 +29,55 @@ public class AuthenticationController {
     @Autowired
     private AuthenticationService authenticationService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
     @PostMapping("/register")
     public ResponseEntity<RegisterResponse> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
         RegisterResponse response = authenticationService.registerUser(registerRequest);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Creates up to {@code spring.app.maxUserBulkSize} users and reports a result per row; invalid or taken
+     * usernames do not stop the others.
+     */
+    @PostMapping("/register/bulk")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<BulkRegisterResponse> registerUsers(@Validated @RequestBody BulkRegisterRequest bulkRegisterRequest) {
+        BulkRegisterResponse response = userProvisioningService.registerUsers(bulkRegisterRequest.getUsers());
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<LoginResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                          HttpServletRequest request) {
+        // Checked before any user lookup or BCrypt work; throws TooManyRequestsException (429) when exhausted.
+        loginRateLimiter.checkLogin(loginRequest.getUsername(), request.getRemoteAddr());
         LoginResponse response = authenticationService.authenticateUser(loginRequest);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        LoginResponse response = authenticationService.refreshToken(refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Revokes the bearer token in the {@code Authorization} header and, if given, the refresh token in the body.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest refreshTokenRequest,
+                                       HttpServletRequest request) {
+        String refreshToken = refreshTokenRequest == null ? null : refreshTokenRequest.getRefreshToken();
+        authenticationService.logout(jwtUtils.getJwtFromHeader(request), refreshToken);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,35 +1,174 @@
 package com.example.customerservice.controller;
 
+import com.example.customerservice.model.request.BulkCustomerRequest;
+import com.example.customerservice.model.request.BulkDeleteRequest;
+import com.example.customerservice.model.request.CustomerPatchRequest;
 import com.example.customerservice.model.request.CustomerRequest;
+import com.example.customerservice.model.response.BulkCreateResponse;
+import com.example.customerservice.model.response.BulkDeleteResponse;
+import com.example.customerservice.model.response.CacheStatsResponse;
+import com.example.customerservice.model.response.CustomerPageResponse;
 import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.model.response.ImportJobResponse;
+import com.example.customerservice.repository.CustomerTableVersion;
+import com.example.customerservice.service.CustomerChangeFeed;
+import com.example.customerservice.service.CustomerImportService;
 import com.example.customerservice.service.CustomerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/customer")
 public class CustomerController {
 
+    // Clients may keep responses but must revalidate them with the ETag before reuse.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private CustomerChangeFeed customerChangeFeed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Per-endpoint read path: true selects the response columns directly, false loads entities and maps them.
+    @Value("${spring.app.customer.projectionGetAll:true}")
+    private boolean projectionGetAll;
+
+    @Value("${spring.app.customer.projectionGetById:true}")
+    private boolean projectionGetById;
+
+    @Value("${spring.app.customer.streamGetAll:true}")
+    private boolean streamGetAll;
+
+    /**
+     * With {@code spring.app.customer.streamGetAll} the array is written to the response one customer at a time
+     * as rows arrive from the database, so memory per request is one row rather than the whole table twice
+     * (result list plus serialized body). Otherwise the list is loaded on the request thread and the same body
+     * writes it out. Either way the body is written on the {@code mvcAsyncExecutor}.
+     */
     @GetMapping
-    public ResponseEntity<List<CustomerResponse>> getAllCustomers() {
-        List<CustomerResponse> customers = customerService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<StreamingResponseBody> getAllCustomers(WebRequest webRequest) {
+        if (isTableNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        StreamingResponseBody body;
+        if (streamGetAll) {
+            body = outputStream -> writeArray(outputStream, sink -> {
+                if (projectionGetAll) {
+                    customerService.streamCustomersProjected(sink);
+                } else {
+                    customerService.exportCustomers(sink);
+                }
+            });
+        } else {
+            List<CustomerResponse> customers = projectionGetAll
+                    ? customerService.getAllCustomersProjected()
+                    : customerService.getAllCustomers();
+            body = outputStream -> writeArray(outputStream, customers::forEach);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
+    public ResponseEntity<CustomerPageResponse> getCustomerPage(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                WebRequest webRequest) {
+        if (isTableNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        CustomerPageResponse page = customerService.getCustomerPage(cursor, size);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(page);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
+    public ResponseEntity<CustomerPageResponse> searchCustomers(@RequestParam(required = false) String email,
+                                                                @RequestParam(required = false) String phone,
+                                                                @RequestParam(required = false) String name,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        CustomerPageResponse page = customerService.searchCustomers(email, phone, name, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                customerService.exportCustomers(customer -> writeLine(generator, customer));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Server-Sent Events stream of customer creates, updates and deletes, for clients that would otherwise poll
+     * the list. A reconnect with {@code Last-Event-ID} resumes after that event; see {@link CustomerChangeFeed}.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return customerChangeFeed.subscribe(lastEventId);
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(customerService.getCacheStats());
+    }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
-    public ResponseEntity<CustomerResponse> getCustomerById(@PathVariable Long id) {
-        return customerService.getCustomerById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<CustomerResponse> getCustomerById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<LocalDateTime> version = customerService.getCustomerVersion(id);
+        if (version.isPresent()
+                && isNotModified(webRequest, "\"" + id + "-" + toEpochMicros(version.get()) + "\"", version.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Optional<CustomerResponse> customer = projectionGetById
+                ? customerService.getCustomerByIdProjected(id)
+                : customerService.getCustomerById(id);
+        return customer
+                .map(body -> ResponseEntity.ok().cacheControl(REVALIDATE).body(body))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -39,11 +178,46 @@ public class CustomerController {
         try {
             CustomerResponse response = customerService.createCustomer(customerRequest);
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
+        } catch (DataIntegrityViolationException e) {
+            // Rejected by a column constraint; other failures get their status from GlobalExceptionHandler.
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
+    public ResponseEntity<BulkCreateResponse> createCustomers(@Validated @RequestBody BulkCustomerRequest bulkCustomerRequest) {
+        BulkCreateResponse response = customerService.createCustomers(bulkCustomerRequest.getCustomers());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Accepts a CSV file (header row naming {@code firstname,lastname,phone,email}) or NDJSON of customer objects
+     * as the raw request body and imports it in the background. Returns 202 with the job to poll.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobResponse> importCustomers(HttpServletRequest request) throws IOException {
+        ImportJobResponse job = customerImportService.startImport(request.getInputStream(),
+                CustomerImportService.Format.fromContentType(request.getContentType()));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/customer/import/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(customerImportService.getImport(jobId));
+    }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<BulkDeleteResponse> deleteCustomers(@Validated @RequestBody BulkDeleteRequest bulkDeleteRequest) {
+        BulkDeleteResponse response = customerService.deleteCustomers(bulkDeleteRequest.getIds());
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
     public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id,
@@ -51,11 +225,18 @@ public class CustomerController {
         try {
             CustomerResponse response = customerService.updateCustomer(id, customerRequest);
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
+        } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER')")
+    public ResponseEntity<Void> patchCustomer(@PathVariable Long id, @RequestBody CustomerPatchRequest patchRequest) {
+        customerService.patchCustomer(id, patchRequest);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<Boolean> deleteById(@PathVariable Long id) {
@@ -67,4 +248,55 @@ public class CustomerController {
         }
     }
 
+    private boolean isTableNotModified(WebRequest webRequest) {
+        CustomerTableVersion version = customerService.getCustomersVersion();
+        String tag = version.lastModified() == null
+                ? version.count() + "-0"
+                : version.count() + "-" + toEpochMicros(version.lastModified());
+        // Weak: list bodies may be gzip-encoded, and Tomcat only compresses responses without a strong ETag.
+        return isNotModified(webRequest, "W/\"" + tag + "\"", version.lastModified());
+    }
+
+    /**
+     * Evaluates If-None-Match / If-Modified-Since against a version computed without loading the resource.
+     * The ETag and Last-Modified are set on the response either way; when this returns true the handler answers
+     * 304 without a body.
+     */
+    private boolean isNotModified(WebRequest webRequest, String etag, LocalDateTime lastModified) {
+        long lastModifiedMillis = lastModified == null
+                ? -1
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return webRequest.checkNotModified(etag, lastModifiedMillis);
+    }
+
+    private long toEpochMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private void writeLine(JsonGenerator generator, CustomerResponse customer) {
+        try {
+            generator.writeObject(customer);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeArray(OutputStream outputStream, Consumer<Consumer<CustomerResponse>> source) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            source.accept(customer -> writeElement(generator, customer));
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeElement(JsonGenerator generator, CustomerResponse customer) {
+        try {
+            generator.writeObject(customer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
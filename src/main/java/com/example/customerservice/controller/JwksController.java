@@ -0,0 +1,33 @@
+package com.example.customerservice.controller;
+
+import com.example.customerservice.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publishes the public half of every live signing key so other services can verify access tokens locally,
+ * selecting the key by the token's {@code kid} header.
+ */
+@RestController
+public class JwksController {
+
+    // A new key is listed here spring.app.jwtKeyPublishLeadMs before it signs anything; keep that lead longer than
+    // this max-age plus jwtKeyRotationCheckMs (how long other nodes take to list it) so cached copies already have it.
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .body(jwtKeyRing.jwks());
+    }
+}
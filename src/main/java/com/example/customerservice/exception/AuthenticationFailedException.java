@@ -2,6 +2,10 @@ package com.example.customerservice.exception;
 
 
 public class AuthenticationFailedException extends RuntimeException {
+    public AuthenticationFailedException(String message) {
+        super(message);
+    }
+
     public AuthenticationFailedException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -0,0 +1,14 @@
+package com.example.customerservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class DuplicateCustomerException extends RuntimeException {
+
+    private final long existingId;
+
+    public DuplicateCustomerException(long existingId) {
+        super("Customer already exists with id " + existingId);
+        this.existingId = existingId;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.customerservice.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
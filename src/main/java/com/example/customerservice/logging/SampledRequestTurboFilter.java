@@ -0,0 +1,42 @@
+package com.example.customerservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns on DEBUG for the configured loggers, but only on threads serving a request that
+ * {@link com.example.customerservice.web.LogSamplingFilter} picked for sampling. Every other request keeps the
+ * configured levels, so a sampled request is logged in full (SQL included) while the rest pay for an MDC lookup.
+ * Configured from {@code logback-spring.xml} with one {@code <logger>} element per logger name prefix.
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "logSampled";
+
+    private final List<String> loggers = new ArrayList<>();
+
+    public void addLogger(String name) {
+        loggers.add(name);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.levelInt != Level.DEBUG_INT || MDC.get(MDC_KEY) == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
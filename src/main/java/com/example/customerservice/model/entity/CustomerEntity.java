@@ -1,6 +1,8 @@
 package com.example.customerservice.model.entity;
 
+import com.example.customerservice.utils.ContactNormalizer;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,16 +11,26 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "customer")
+@Table(name = "customer", indexes = {
+        @Index(name = "idx_customer_email", columnList = "normalized_email, id"),
+        @Index(name = "idx_customer_phone", columnList = "normalized_phone, id"),
+        @Index(name = "idx_customer_name", columnList = "normalized_name, id"),
+        @Index(name = "idx_customer_update_date", columnList = "update_date")
+}, uniqueConstraints = {
+        // One customer per contact: the same normalized email and phone cannot be stored twice.
+        @UniqueConstraint(name = "uk_customer_contact", columnNames = {"normalized_email", "normalized_phone"})
+})
 @EntityListeners(AuditingEntityListener.class)
 public class CustomerEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
 
@@ -27,6 +39,19 @@ public class CustomerEntity {
     private String email;
     private String phone;
 
+    // Search keys derived from the fields above; kept in sync by normalize() and never set directly.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_email")
+    private String normalizedEmail;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_phone")
+    private String normalizedPhone;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createDate;
@@ -41,4 +66,16 @@ public class CustomerEntity {
         this.email = email;
         this.phone = phone;
     }
+
+    @PrePersist
+    @PreUpdate
+    public void normalize() {
+        // Match the database's microsecond precision so the in-memory value equals what is read back (ETags).
+        if (updateDate != null) {
+            updateDate = updateDate.truncatedTo(ChronoUnit.MICROS);
+        }
+        normalizedEmail = ContactNormalizer.email(email);
+        normalizedPhone = ContactNormalizer.phone(phone);
+        normalizedName = ContactNormalizer.name(firstname, lastname);
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.customerservice.model.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCustomerRequest {
+    @NotEmpty
+    @Valid
+    private List<CustomerRequest> customers;
+}
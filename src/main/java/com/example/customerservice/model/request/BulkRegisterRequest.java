@@ -0,0 +1,19 @@
+package com.example.customerservice.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rows are not validated up front: each invalid row is reported in the response and the rest are still created.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRegisterRequest {
+    @NotEmpty
+    private List<RegisterRequest> users;
+}
@@ -0,0 +1,18 @@
+package com.example.customerservice.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update: null fields are left unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPatchRequest {
+    private String firstname;
+    private String lastname;
+    private String phone;
+    private String email;
+}
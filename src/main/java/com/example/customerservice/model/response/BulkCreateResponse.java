@@ -0,0 +1,15 @@
+package com.example.customerservice.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResponse {
+    private int created;
+    private List<Long> ids;
+}
@@ -0,0 +1,16 @@
+package com.example.customerservice.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+    private int deleted;
+    private List<Long> deletedIds;
+    private List<Long> notFoundIds;
+}
@@ -0,0 +1,17 @@
+package com.example.customerservice.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRegisterResponse {
+    private int created;
+    private int rejected;
+    /** One entry per requested row, in request order. */
+    private List<BulkRegisterResult> results;
+}
@@ -0,0 +1,22 @@
+package com.example.customerservice.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRegisterResult {
+
+    public enum Status {
+        CREATED,
+        /** The username is already taken, by an existing user or an earlier row of the same request. */
+        EXISTS,
+        INVALID
+    }
+
+    private String username;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package com.example.customerservice.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the customer change feed. {@code customer} is the state after a create or update; it is null for
+ * deletes and for partial updates, which do not read the row back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangeEvent {
+
+    public enum Type {CREATED, UPDATED, DELETED}
+
+    private long sequence;
+    private Type type;
+    private Long customerId;
+    private CustomerResponse customer;
+    private Instant occurredAt;
+}
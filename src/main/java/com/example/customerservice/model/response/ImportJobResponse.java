@@ -0,0 +1,38 @@
+package com.example.customerservice.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private long line;
+        private String reason;
+    }
+
+    private String id;
+    private String format;
+    /** QUEUED, RUNNING, COMPLETED or FAILED. */
+    private String status;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    /** Rows read per second since the job started, up to now or until it finished. */
+    private double rowsPerSecond;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    /** The first rejected rows, with the line each starts on. */
+    private List<RejectedRow> rejectedRows;
+}
@@ -13,4 +13,9 @@ public class LoginResponse {
     private String username;
     private List<String> roles;
     private String jwtToken;
+    private String refreshToken;
+
+    public LoginResponse(String username, List<String> roles, String jwtToken) {
+        this(username, roles, jwtToken, null);
+    }
 }
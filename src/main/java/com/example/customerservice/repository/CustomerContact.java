@@ -0,0 +1,7 @@
+package com.example.customerservice.repository;
+
+/**
+ * A customer's normalized contact columns, the key for duplicate detection.
+ */
+public record CustomerContact(Long id, String normalizedEmail, String normalizedPhone) {
+}
@@ -1,7 +1,168 @@
 package com.example.customerservice.repository;
 
 import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.model.response.CustomerResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface CustomerRepository extends JpaRepository<CustomerEntity, Long> {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>, CustomerRepositoryCustom {
+
+    /**
+     * Response columns only, built straight into the DTO; nothing enters the persistence context.
+     */
+    @Query("""
+            select new com.example.customerservice.model.response.CustomerResponse(
+                c.id, c.firstname, c.lastname, c.phone, c.email)
+            from CustomerEntity c where c.id = :id""")
+    Optional<CustomerResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Projection counterpart of {@link #findAll()}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.example.customerservice.model.response.CustomerResponse(
+                c.id, c.firstname, c.lastname, c.phone, c.email)
+            from CustomerEntity c""")
+    List<CustomerResponse> findAllResponses();
+
+    /**
+     * Id of the customer with this normalized email and phone; a seek on {@code uk_customer_contact}.
+     */
+    @Query("select c.id from CustomerEntity c where c.normalizedEmail = :email and c.normalizedPhone = :phone")
+    Optional<Long> findIdByContact(@Param("email") String normalizedEmail, @Param("phone") String normalizedPhone);
+
+    /**
+     * Contact columns of one customer, without loading the entity.
+     */
+    @Query("""
+            select new com.example.customerservice.repository.CustomerContact(c.id, c.normalizedEmail, c.normalizedPhone)
+            from CustomerEntity c where c.id = :id""")
+    Optional<CustomerContact> findContactById(@Param("id") Long id);
+
+    /**
+     * Contact columns of every customer, for rebuilding the in-memory contact index. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.example.customerservice.repository.CustomerContact(c.id, c.normalizedEmail, c.normalizedPhone)
+            from CustomerEntity c""")
+    Stream<CustomerContact> streamContacts();
+
+    /**
+     * Version lookup for conditional GETs: a primary key seek returning one column.
+     */
+    @Query("select c.updateDate from CustomerEntity c where c.id = :id")
+    Optional<LocalDateTime> findUpdateDateById(@Param("id") Long id);
+
+    /**
+     * Row count and newest {@code updateDate}; both aggregates are answered from indexes.
+     */
+    @Query("""
+            select new com.example.customerservice.repository.CustomerTableVersion(count(c), max(c.updateDate))
+            from CustomerEntity c""")
+    CustomerTableVersion findTableVersion();
+
+    /**
+     * Partial update in one statement without loading the row. Null arguments keep the current value; the search
+     * columns are recomputed from the resulting values, and {@code updateDate} is set explicitly because auditing
+     * does not run for JPQL updates. Returns the number of rows updated (0 when the id does not exist).
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update CustomerEntity c set
+                c.firstname = coalesce(:firstname, c.firstname),
+                c.lastname = coalesce(:lastname, c.lastname),
+                c.phone = coalesce(:phone, c.phone),
+                c.email = coalesce(:email, c.email),
+                c.normalizedEmail = case when :email is null then c.normalizedEmail else :normalizedEmail end,
+                c.normalizedPhone = case when :phone is null then c.normalizedPhone else :normalizedPhone end,
+                c.normalizedName = lower(trim(concat(trim(coalesce(:firstname, c.firstname)), ' ',
+                                                     trim(coalesce(:lastname, c.lastname))))),
+                c.updateDate = :updateDate
+            where c.id = :id""")
+    int patchById(@Param("id") Long id,
+                  @Param("firstname") String firstname,
+                  @Param("lastname") String lastname,
+                  @Param("phone") String phone,
+                  @Param("email") String email,
+                  @Param("normalizedPhone") String normalizedPhone,
+                  @Param("normalizedEmail") String normalizedEmail,
+                  @Param("updateDate") LocalDateTime updateDate);
+
+    /**
+     * Single-statement delete; returns the number of rows deleted (0 when the id does not exist).
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from CustomerEntity c where c.id = :id")
+    int deleteOneById(@Param("id") Long id);
+
+    /**
+     * Keyset page: the next {@code limit} customers after {@code id}, walking the primary key index.
+     */
+    List<CustomerEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Exact match on the normalized email, paged by id; a seek on {@code idx_customer_email}.
+     */
+    List<CustomerEntity> findByNormalizedEmailAndIdGreaterThanOrderByIdAsc(String normalizedEmail, Long id, Limit limit);
+
+    /**
+     * Exact match on the digits-only phone, paged by id; a seek on {@code idx_customer_phone}.
+     */
+    List<CustomerEntity> findByNormalizedPhoneAndIdGreaterThanOrderByIdAsc(String normalizedPhone, Long id, Limit limit);
+
+    /**
+     * Name-prefix page as a range scan on {@code idx_customer_name}: names in {@code [prefix, upperBound)} that sort
+     * after the {@code (afterName, afterId)} keyset cursor, in index order. A null {@code upperBound} leaves the
+     * range open above.
+     */
+    @Query("""
+            select c from CustomerEntity c
+            where c.normalizedName >= :prefix and (:upperBound is null or c.normalizedName < :upperBound)
+              and (c.normalizedName > :afterName or (c.normalizedName = :afterName and c.id > :afterId))
+            order by c.normalizedName, c.id""")
+    List<CustomerEntity> findByNamePrefix(@Param("prefix") String prefix,
+                                          @Param("upperBound") String upperBound,
+                                          @Param("afterName") String afterName,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    /**
+     * Cursor over every customer in id order. Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from CustomerEntity c order by c.id")
+    Stream<CustomerEntity> streamAllOrderById();
+
+    /**
+     * Projection counterpart of {@link #streamAllOrderById()}: rows become response DTOs straight from the result
+     * set, so nothing is added to the persistence context while streaming. Must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.example.customerservice.model.response.CustomerResponse(
+                c.id, c.firstname, c.lastname, c.phone, c.email)
+            from CustomerEntity c
+            order by c.id""")
+    Stream<CustomerResponse> streamAllResponses();
 }
@@ -0,0 +1,25 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.model.entity.CustomerEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Evicts a customer from the current persistence context so long-running streams do not accumulate managed entities.
+     */
+    void detach(CustomerEntity customer);
+
+    /**
+     * Persists new customers in one transaction using JDBC batching, then clears the persistence context.
+     */
+    List<CustomerEntity> insertAll(List<CustomerEntity> customers);
+
+    /**
+     * Deletes the given ids in one transaction with two {@code IN} statements (lock existing ids, then delete
+     * them) and returns the ids that were actually deleted.
+     */
+    List<Long> deleteAllByIdIn(Collection<Long> ids);
+}
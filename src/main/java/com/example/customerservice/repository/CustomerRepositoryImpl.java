@@ -0,0 +1,48 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.model.entity.CustomerEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void detach(CustomerEntity customer) {
+        entityManager.detach(customer);
+    }
+
+    @Override
+    @Transactional
+    public List<CustomerEntity> insertAll(List<CustomerEntity> customers) {
+        // persist() rather than save(): the entities are known to be new, so skip merge's select-before-insert.
+        customers.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+        return customers;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deleteAllByIdIn(Collection<Long> ids) {
+        // Locking the matching rows first keeps the reported ids exact under concurrent deletes.
+        List<Long> existing = entityManager
+                .createQuery("select c.id from CustomerEntity c where c.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (!existing.isEmpty()) {
+            entityManager.createQuery("delete from CustomerEntity c where c.id in :ids")
+                    .setParameter("ids", existing)
+                    .executeUpdate();
+        }
+        return existing;
+    }
+}
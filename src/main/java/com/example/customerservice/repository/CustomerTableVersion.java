@@ -0,0 +1,9 @@
+package com.example.customerservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of the customer table as a whole; {@code lastModified} is null when the table is empty.
+ */
+public record CustomerTableVersion(Long count, LocalDateTime lastModified) {
+}
@@ -1,6 +1,8 @@
 package com.example.customerservice.security;
 
 import com.example.customerservice.utils.JwtUtils;
+import com.example.customerservice.utils.RateLimitedLogger;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +10,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,6 +22,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
 
 @Component
 public class AuthTokenFilter extends OncePerRequestFilter {
@@ -26,7 +33,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserCache userCache;
+
+    /**
+     * {@code lookup} loads the user (through {@link #userCache}) on every request; {@code claims} trusts the
+     * signed {@code roles} claim and never touches the user store.
+     */
+    @Value("${spring.app.authMode:lookup}")
+    private String authMode;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
+    private static final RateLimitedLogger authFailureLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(10));
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -34,10 +52,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         logger.debug("AuthTokenFilter called for URI: {}", request.getRequestURI());
         try {
             String jwt = parseJwt(request);
-            if (jwtUtils.isValid(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Optional<Claims> claims = jwtUtils.getValidatedClaims(jwt);
+            if (claims.isPresent()) {
+                String username = claims.get().getSubject();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = "claims".equalsIgnoreCase(authMode)
+                        ? userFromClaims(username, claims.get())
+                        : loadUser(username);
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
@@ -50,16 +71,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+            authFailureLog.error("Cannot set user authentication: {}", e.getMessage());
+            logger.debug("Authentication failure detail", e);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails userFromClaims(String username, Claims claims) {
+        return User.withUsername(username)
+                .password("")
+                .authorities(jwtUtils.getAuthoritiesFromClaims(claims))
+                .build();
+    }
+
+    private UserDetails loadUser(String username) {
+        UserDetails userDetails = userCache.getUserFromCache(username);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(username);
+            userCache.putUserInCache(userDetails);
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
-        String jwt = jwtUtils.getJwtFromHeader(request);
-        logger.debug("AuthTokenFilter.java: {}", jwt);
-        return jwt;
+        return jwtUtils.getJwtFromHeader(request);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.customerservice.security;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+
+import javax.sql.DataSource;
+
+/**
+ * Stores the rehashed password that {@code DaoAuthenticationProvider} produces after a successful login when
+ * the stored hash no longer matches the configured BCrypt cost.
+ */
+public class JdbcPasswordUpgradeService implements UserDetailsPasswordService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCache userCache;
+
+    public JdbcPasswordUpgradeService(DataSource dataSource, UserCache userCache) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.userCache = userCache;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        jdbcTemplate.update("update users set password = ? where username = ?", newPassword, user.getUsername());
+        userCache.removeUserFromCache(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.customerservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ES256 signing keys shared through a directory, one private JWK file per key id ({@code kid}). Every instance
+ * pointed at the same directory signs with the newest active key and verifies with any key still in its overlap
+ * window, so tokens survive restarts and are accepted by every node.
+ * <p>
+ * The next key is generated {@code publishLead} before the current one is {@code rotation} old, with a creation
+ * time in the future: it is published in the JWKS straight away but only signs from that time on, so verifiers
+ * holding a cached JWKS already know it. A key stays valid for verification until {@code rotation + overlap}
+ * after its creation, so the overlap must cover the longest token lifetime. Key files are parsed once and held
+ * by file name and modification time; an unknown {@code kid} triggers a re-read of the directory, at most once
+ * per second.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String CREATED_PARAM = "iat";
+    private static final String FILE_SUFFIX = ".jwk.json";
+    private static final Duration RELOAD_INTERVAL = Duration.ofSeconds(1);
+
+    public record RingKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant createdAt) {
+    }
+
+    /**
+     * A key file as last parsed; {@code key} is null if it could not be read.
+     */
+    private record ParsedFile(FileTime modified, RingKey key) {
+    }
+
+    private final Path directory;
+    private final Duration rotation;
+    private final Duration overlap;
+    private final Duration publishLead;
+    private final Clock clock;
+    private final Map<Path, ParsedFile> parsedFiles = new HashMap<>();
+
+    private volatile Map<String, RingKey> keys = Map.of();
+    private volatile RingKey signingKey;
+    private volatile RingKey nextKey;
+    private volatile String jwks;
+    private volatile Instant lastReload = Instant.MIN;
+
+    @Autowired
+    public JwtKeyRing(@Value("${spring.app.jwtKeyStoreDir}") String directory,
+                      @Value("${spring.app.jwtKeyRotationMs}") long rotationMs,
+                      @Value("${spring.app.jwtKeyOverlapMs}") long overlapMs,
+                      @Value("${spring.app.jwtKeyPublishLeadMs}") long publishLeadMs) {
+        this(Path.of(directory), Duration.ofMillis(rotationMs), Duration.ofMillis(overlapMs),
+                Duration.ofMillis(publishLeadMs), Clock.systemUTC());
+    }
+
+    JwtKeyRing(Path directory, Duration rotation, Duration overlap, Duration publishLead, Clock clock) {
+        this.directory = directory;
+        this.rotation = rotation;
+        this.overlap = overlap;
+        this.publishLead = publishLead;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create JWT key directory " + directory, e);
+        }
+        rotate();
+    }
+
+    /**
+     * The newest key whose creation time has passed; a published next key takes over as soon as it is due.
+     */
+    public RingKey signingKey() {
+        RingKey next = nextKey;
+        if (next != null && !next.createdAt().isAfter(clock.instant())) {
+            return next;
+        }
+        return signingKey;
+    }
+
+    /**
+     * The public key for {@code kid}, or null if no live or published key has that id.
+     */
+    public PublicKey verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        RingKey key = keys.get(kid);
+        if (key == null && isReloadDue()) {
+            synchronized (this) {
+                // Callers that queued behind another reload take its result instead of reading the directory again.
+                if (isReloadDue()) {
+                    reload();
+                }
+            }
+            key = keys.get(kid);
+        }
+        return key == null ? null : key.publicKey();
+    }
+
+    /**
+     * The live and published public keys as a JWK Set document, rebuilt only when the ring changes.
+     */
+    public String jwks() {
+        return jwks;
+    }
+
+    /**
+     * Picks up keys written by other instances, publishes the next signing key when the current one is due for
+     * rotation within {@code publishLead} and deletes keys past their overlap window. With no usable key at all
+     * (first start, or every key retired) the new key signs at once.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.jwtKeyRotationCheckMs}")
+    public synchronized void rotate() {
+        reload();
+        Instant now = clock.instant();
+        RingKey current = signingKey;
+        boolean due = current == null
+                || (nextKey == null && !current.createdAt().plus(rotation).minus(publishLead).isAfter(now));
+        if (due) {
+            try {
+                Instant activeFrom = current == null ? now : later(now.plus(publishLead), current.createdAt().plus(rotation));
+                RingKey key = generate(activeFrom);
+                logger.info("Generated JWT signing key {}, signing from {}", key.kid(), key.createdAt());
+                reload();
+            } catch (IOException e) {
+                if (signingKey == null) {
+                    throw new UncheckedIOException("Cannot write JWT signing key to " + directory, e);
+                }
+                logger.error("JWT key rotation failed, still signing with {}: {}", signingKey.kid(), e.getMessage());
+            }
+        }
+        for (ParsedFile parsed : parsedFiles.values()) {
+            RingKey key = parsed.key();
+            if (key != null && isRetired(key, now)) {
+                try {
+                    Files.deleteIfExists(file(key.kid()));
+                } catch (IOException e) {
+                    logger.warn("Cannot delete retired JWT key {}: {}", key.kid(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean isReloadDue() {
+        return clock.instant().isAfter(lastReload.plus(RELOAD_INTERVAL));
+    }
+
+    private void reload() {
+        Instant now = clock.instant();
+        Map<String, RingKey> live = readAll().stream()
+                .filter(key -> !isRetired(key, now))
+                .collect(Collectors.toUnmodifiableMap(RingKey::kid, key -> key));
+        if (!live.keySet().equals(keys.keySet())) {
+            keys = live;
+            jwks = toJwks(live.values());
+        }
+        Comparator<RingKey> newest = Comparator.comparing(RingKey::createdAt).thenComparing(RingKey::kid);
+        signingKey = live.values().stream()
+                .filter(key -> !key.createdAt().isAfter(now))
+                .max(newest)
+                .orElse(null);
+        nextKey = live.values().stream()
+                .filter(key -> key.createdAt().isAfter(now))
+                .min(newest)
+                .orElse(null);
+        lastReload = now;
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private boolean isRetired(RingKey key, Instant now) {
+        return !key.createdAt().plus(rotation).plus(overlap).isAfter(now);
+    }
+
+    /**
+     * Every readable key in the directory. Only files that are new or modified since the last call are parsed;
+     * an unreadable file is logged once per modification.
+     */
+    private List<RingKey> readAll() {
+        List<RingKey> result = new ArrayList<>();
+        Set<Path> seen = new HashSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX)).forEach(path -> {
+                try {
+                    FileTime modified = Files.getLastModifiedTime(path);
+                    ParsedFile parsed = parsedFiles.get(path);
+                    if (parsed == null || !parsed.modified().equals(modified)) {
+                        parsed = new ParsedFile(modified, parse(path));
+                        parsedFiles.put(path, parsed);
+                    }
+                    seen.add(path);
+                    if (parsed.key() != null) {
+                        result.add(parsed.key());
+                    }
+                } catch (IOException e) {
+                    // Deleted between the listing and the stat; it is dropped from the cache below.
+                }
+            });
+        } catch (IOException e) {
+            logger.error("Cannot list JWT key directory {}: {}", directory, e.getMessage());
+            return new ArrayList<>(keys.values());
+        }
+        parsedFiles.keySet().retainAll(seen);
+        return result;
+    }
+
+    private RingKey parse(Path path) {
+        try {
+            return read(path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Skipping unreadable JWT key file {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private RingKey read(Path path) throws IOException {
+        Jwk<?> jwk = Jwks.parser().build().parse(Files.readString(path, StandardCharsets.UTF_8));
+        if (!(jwk instanceof PrivateJwk<?, ?, ?> privateJwk) || jwk.getId() == null) {
+            throw new IllegalArgumentException("not a private JWK with a kid");
+        }
+        KeyPair keyPair = privateJwk.toKeyPair().toJavaKeyPair();
+        Instant createdAt = Instant.ofEpochSecond(Long.parseLong(String.valueOf(jwk.get(CREATED_PARAM))));
+        return new RingKey(jwk.getId(), keyPair.getPrivate(), keyPair.getPublic(), createdAt);
+    }
+
+    private RingKey generate(Instant createdAt) throws IOException {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        String kid = UUID.randomUUID().toString();
+        Jwk<?> jwk = Jwks.builder()
+                .keyPair(keyPair)
+                .id(kid)
+                .add(CREATED_PARAM, createdAt.getEpochSecond())
+                .build();
+        // Write then rename, so other instances never read a half-written key.
+        Path temp = Files.createTempFile(directory, kid, ".tmp");
+        try {
+            restrictToOwner(temp);
+            Files.writeString(temp, Jwks.UNSAFE_JSON(jwk), StandardCharsets.UTF_8);
+            Files.move(temp, file(kid), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new RingKey(kid, keyPair.getPrivate(), keyPair.getPublic(), Instant.ofEpochSecond(createdAt.getEpochSecond()));
+    }
+
+    private static void restrictToOwner(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; rely on the directory's permissions.
+        }
+    }
+
+    private Path file(String kid) {
+        return directory.resolve(kid + FILE_SUFFIX);
+    }
+
+    private static String toJwks(Collection<RingKey> keys) {
+        return keys.stream()
+                .sorted(Comparator.comparing(RingKey::createdAt).reversed())
+                .map(key -> {
+                    PublicJwk<?> jwk = Jwks.builder()
+                            .key(key.publicKey())
+                            .id(key.kid())
+                            .algorithm("ES256")
+                            .publicKeyUse("sig")
+                            .build();
+                    return Jwks.json(jwk);
+                })
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+}
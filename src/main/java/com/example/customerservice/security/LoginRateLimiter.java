@@ -0,0 +1,160 @@
+package com.example.customerservice.security;
+
+import com.example.customerservice.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets in front of the BCrypt check on login: one per client IP and one per username. A rejected
+ * attempt costs a map lookup and answers 429 without touching the user store or the hashing pool.
+ * <p>
+ * Each bucket is guarded by its own monitor, so logins for different keys never contend. Memory is bounded:
+ * each limit keeps at most {@code maxBuckets} keys in a Caffeine cache. When it is full, the cache evicts
+ * rarely used keys, so a flood of new keys cannot lock out other new users. A bucket untouched for as long as
+ * it takes to refill from empty expires, since it would behave exactly like a new one.
+ * A capacity of 0 disables that limit.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Limit clientIps;
+    private final Limit usernames;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${spring.app.loginIpCapacity}") int ipCapacity,
+                            @Value("${spring.app.loginIpRefillPerMinute}") int ipRefillPerMinute,
+                            @Value("${spring.app.loginUsernameCapacity}") int usernameCapacity,
+                            @Value("${spring.app.loginUsernameRefillPerMinute}") int usernameRefillPerMinute,
+                            @Value("${spring.app.loginMaxBuckets}") int maxBuckets,
+                            MeterRegistry meterRegistry) {
+        this(ipCapacity, ipRefillPerMinute, usernameCapacity, usernameRefillPerMinute, maxBuckets, meterRegistry,
+                System::nanoTime);
+    }
+
+    LoginRateLimiter(int ipCapacity, int ipRefillPerMinute, int usernameCapacity, int usernameRefillPerMinute,
+                     int maxBuckets, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.clientIps = new Limit("ip", ipCapacity, ipRefillPerMinute, maxBuckets, meterRegistry, nanoClock);
+        this.usernames = new Limit("username", usernameCapacity, usernameRefillPerMinute, maxBuckets, meterRegistry,
+                nanoClock);
+    }
+
+    /**
+     * Takes one attempt from the client's bucket and then from the username's. Throws
+     * {@link TooManyRequestsException} (HTTP 429) when either is empty; a request refused by the IP limit does
+     * not use up an attempt for the username.
+     */
+    public void checkLogin(String username, String clientIp) {
+        clientIps.acquire(clientIp == null ? "" : clientIp);
+        usernames.acquire(username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Caffeine expires buckets lazily during later lookups; this drops them even when no logins arrive.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.loginBucketEvictionMs}")
+    public void evictIdleBuckets() {
+        clientIps.evictIdle();
+        usernames.evictIdle();
+    }
+
+    int trackedBuckets() {
+        return (int) (clientIps.size() + usernames.size());
+    }
+
+    private static final class Limit {
+
+        private final int capacity;
+        private final double tokensPerNano;
+        private final LongSupplier nanoClock;
+        private final Cache<String, Bucket> buckets;
+        private final Counter rejected;
+
+        Limit(String name, int capacity, int refillPerMinute, int maxBuckets, MeterRegistry meterRegistry,
+              LongSupplier nanoClock) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.nanoClock = nanoClock;
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .maximumSize(maxBuckets)
+                    .ticker(nanoClock::getAsLong)
+                    .executor(Runnable::run);
+            if (capacity > 0 && refillPerMinute > 0) {
+                builder.expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano)));
+            }
+            this.buckets = builder.build();
+            this.rejected = Counter.builder("auth.login.rejected")
+                    .description("Login attempts refused by the rate limiter before any password check")
+                    .tag("limit", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.buckets", this, Limit::size)
+                    .description("Keys currently tracked by the login rate limiter")
+                    .tag("limit", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            if (capacity <= 0) {
+                return;
+            }
+            long now = nanoClock.getAsLong();
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            long waitNanos = bucket.tryAcquire(capacity, tokensPerNano, now);
+            if (waitNanos > 0) {
+                rejected.increment();
+                long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+                throw new TooManyRequestsException("Too many login attempts, please retry later", retryAfterSeconds);
+            }
+        }
+
+        void evictIdle() {
+            buckets.cleanUp();
+        }
+
+        long size() {
+            buckets.cleanUp();
+            return buckets.estimatedSize();
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Returns 0 if a token was taken, otherwise the nanoseconds until one will be available.
+         */
+        synchronized long tryAcquire(int capacity, double tokensPerNano, long now) {
+            refill(capacity, tokensPerNano, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+        }
+
+        private void refill(int capacity, double tokensPerNano, long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.customerservice.security;
+
+import com.example.customerservice.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing and verification on a small, fixed pool so a burst of logins cannot take every CPU
+ * away from the rest of the API. Work that does not fit in the queue is rejected immediately with
+ * {@link ServiceBusyException} (HTTP 503) instead of piling up on request threads.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final int batchWindow;
+
+    public PasswordHashingExecutor(@Value("${spring.app.passwordHashThreads}") int threads,
+                                   @Value("${spring.app.passwordHashQueueCapacity}") int queueCapacity,
+                                   @Value("${spring.app.passwordHashTimeoutMs}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.batchWindow = Math.min(poolSize, Math.max(1, queueCapacity));
+    }
+
+    /**
+     * Publishes pool size, active threads, queue depth and completed tasks as {@code executor.*{name=password.hashing}}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password.hashing", List.of()).bindTo(registry);
+    }
+
+    /**
+     * Runs {@code task} on the hashing pool and waits for its result. Runtime exceptions thrown by the task
+     * (for example a failed authentication) are rethrown unchanged.
+     */
+    public <T> T call(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    /**
+     * Runs {@code tasks} on the hashing pool and returns their results in order. No more tasks are outstanding
+     * than there are pool threads (or queue slots, if fewer), so logins submitted meanwhile wait behind a few batch
+     * tasks rather than the whole batch, and the batch alone never overflows the queue.
+     */
+    public <T> List<T> callAll(List<? extends Callable<T>> tasks) {
+        Semaphore window = new Semaphore(batchWindow);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                window.acquire();
+                try {
+                    futures.add(submit(() -> {
+                        try {
+                            return task.call();
+                        } finally {
+                            window.release();
+                        }
+                    }));
+                } catch (ServiceBusyException e) {
+                    window.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password operation was interrupted");
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many password operations in progress, please retry shortly");
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceBusyException("Password operation timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password operation was interrupted");
+        }
+    }
+
+    int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.customerservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+/**
+ * Short-lived {@link UserCache} for the per-request user lookup in {@link AuthTokenFilter}. Entries expire after
+ * {@code ttlMillis}; {@code JdbcUserDetailsManager} evicts a user whenever it updates, deletes or changes the
+ * password of that user. At most {@code maxSize} users are held; beyond that Caffeine evicts the least valuable.
+ */
+public class TtlUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> entries;
+    private final boolean enabled;
+
+    public TtlUserCache(long ttlMillis, int maxSize) {
+        this.enabled = ttlMillis > 0 && maxSize > 0;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(Duration.ofMillis(Math.max(ttlMillis, 0)))
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return entries.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (enabled) {
+            entries.put(user.getUsername(), user);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        entries.invalidate(username);
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+}
@@ -5,7 +5,11 @@ import com.example.customerservice.model.request.LoginRequest;
 import com.example.customerservice.model.request.RegisterRequest;
 import com.example.customerservice.model.response.LoginResponse;
 import com.example.customerservice.model.response.RegisterResponse;
+import com.example.customerservice.security.PasswordHashingExecutor;
 import com.example.customerservice.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,6 +17,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.stereotype.Service;
@@ -27,20 +32,36 @@ public class AuthenticationService {
     private final JwtUtils jwtUtils;
     private final PasswordEncoder passwordEncoder;
     private final JdbcUserDetailsManager jdbcUserDetailsManager;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    // Both timers run on the hashing pool, so they exclude time spent queued for a hashing thread.
+    private final Timer passwordVerifyTimer;
+    private final Timer passwordHashTimer;
 
-    public AuthenticationService(AuthenticationManager authenticationManager, JwtUtils jwtUtils, PasswordEncoder passwordEncoder, JdbcUserDetailsManager jdbcUserDetailsManager) {
+    public AuthenticationService(AuthenticationManager authenticationManager, JwtUtils jwtUtils, PasswordEncoder passwordEncoder, JdbcUserDetailsManager jdbcUserDetailsManager,
+                                 PasswordHashingExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
         this.passwordEncoder = passwordEncoder;
         this.jdbcUserDetailsManager = jdbcUserDetailsManager;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.passwordVerifyTimer = Timer.builder("auth.password.verify")
+                .description("Login credential check: user lookup plus BCrypt verify")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.passwordHashTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt hash of a new password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public RegisterResponse registerUser(RegisterRequest registerRequest) {
         if (!this.isValidRequest(registerRequest)) {
              throw new IllegalArgumentException("Missing fields");
         }
+        String encodedPassword = passwordHashingExecutor.call(
+                () -> passwordHashTimer.record(() -> passwordEncoder.encode(registerRequest.getPassword())));
         UserDetails user = User.withUsername(registerRequest.getUsername())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(encodedPassword)
                 .roles(registerRequest.getRole())
                 .build();
         jdbcUserDetailsManager.createUser(user);
@@ -56,18 +77,52 @@ public class AuthenticationService {
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwtToken = jwtUtils.generateTokenFromUsername(userDetails);
-            List<String> roles = getRoles(userDetails);
-
-            return new LoginResponse(userDetails.getUsername(), roles, jwtToken);
+            return issueTokens(userDetails);
         } catch (AuthenticationException exception) {
             throw new AuthenticationFailedException("Invalid username or password", exception);
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access and refresh token without a password check. The presented
+     * refresh token is revoked, so each one works once; roles and account status are re-read from the user store.
+     */
+    public LoginResponse refreshToken(String refreshToken) {
+        Claims claims = jwtUtils.getValidatedRefreshClaims(refreshToken)
+                .orElseThrow(() -> new AuthenticationFailedException("Invalid refresh token"));
+        if (!jwtUtils.revoke(claims)) {
+            throw new AuthenticationFailedException("Invalid refresh token");
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = jdbcUserDetailsManager.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException exception) {
+            throw new AuthenticationFailedException("Invalid refresh token", exception);
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            throw new AuthenticationFailedException("Account is disabled or locked");
+        }
+        return issueTokens(userDetails);
+    }
+
+    /**
+     * Revokes whichever of the two tokens are valid; either may be null.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        jwtUtils.getValidatedClaims(accessToken).ifPresent(jwtUtils::revoke);
+        jwtUtils.getValidatedRefreshClaims(refreshToken).ifPresent(jwtUtils::revoke);
+    }
+
+    private LoginResponse issueTokens(UserDetails userDetails) {
+        String jwtToken = jwtUtils.generateTokenFromUsername(userDetails);
+        String refreshToken = jwtUtils.generateRefreshToken(userDetails);
+        return new LoginResponse(userDetails.getUsername(), getRoles(userDetails), jwtToken, refreshToken);
+    }
+
     private Authentication authenticate(LoginRequest loginRequest) {
-        return authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        // The BCrypt check inside authenticate() runs on the bounded hashing pool, not on the request thread.
+        return passwordHashingExecutor.call(() -> passwordVerifyTimer.record(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()))));
     }
 
     private List<String> getRoles(UserDetails userDetails) {
@@ -0,0 +1,90 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.model.response.CustomerResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link CustomerResponse} by id. Caffeine's W-TinyLFU eviction keeps the hot set
+ * resident; entries also expire {@code customerCacheTtlMs} after they were written, which bounds staleness from
+ * writes that bypass {@link CustomerService}. Missing customers are not cached.
+ * <p>
+ * Each customer's {@code updateDate} is cached alongside under the same bounds, so conditional GETs can be
+ * answered without touching the database.
+ */
+@Component
+public class CustomerCache implements MeterBinder {
+
+    private final Cache<Long, CustomerResponse> cache;
+    private final Cache<Long, LocalDateTime> versions;
+
+    public CustomerCache(@Value("${spring.app.customer.cacheSize}") long maxSize,
+                         @Value("${spring.app.customer.cacheTtlMs}") long ttlMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    /**
+     * Publishes hit, miss, eviction and size metrics as {@code cache.*{cache=customers}}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "customers");
+    }
+
+    public Optional<CustomerResponse> get(Long id, Function<Long, Optional<CustomerResponse>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void put(CustomerResponse customer) {
+        if (customer.getId() != null) {
+            cache.put(customer.getId(), customer);
+        }
+    }
+
+    public Optional<LocalDateTime> getVersion(Long id, Function<Long, Optional<LocalDateTime>> loader) {
+        return Optional.ofNullable(versions.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void putVersion(Long id, LocalDateTime updateDate) {
+        if (id == null) {
+            return;
+        }
+        if (updateDate == null) {
+            versions.invalidate(id);
+        } else {
+            versions.put(id, updateDate);
+        }
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        versions.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.exception.ServiceBusyException;
+import com.example.customerservice.model.response.CustomerChangeEvent;
+import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.utils.SequencedRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Customer create, update and delete events, kept in a {@link SequencedRingBuffer} of the last
+ * {@code changeFeedCapacity} changes and streamed to subscribers as Server-Sent Events.
+ * <p>
+ * Writers only append to the ring and unpark waiting subscribers, so they never wait for a consumer. Each
+ * subscriber has its own virtual thread that reads from its position in the ring and sends; a slow client only
+ * holds up its own thread. A subscriber that falls more than the ring's capacity behind, or resumes from an event
+ * that is no longer kept, receives a {@code resync} event and the stream ends: the client reloads what it needs
+ * and reconnects with that event's id.
+ * <p>
+ * Event ids are {@code <stream>:<sequence>}. The stream part changes on every start, so a {@code Last-Event-ID}
+ * from before a restart also leads to a resync.
+ */
+@Component
+public class CustomerChangeFeed {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long RESYNC = -1;
+
+    private final SequencedRingBuffer<Change> ring;
+    private final String stream = UUID.randomUUID().toString().substring(0, 8);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots taken by open or opening streams; reserved before a subscriber is created so the limit cannot be overrun.
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final ExecutorService senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("customer-changes-", 1).factory());
+    private final int maxSubscribers;
+    private final long heartbeatNanos;
+    private final Counter publishedEvents;
+    private final Counter resyncs;
+
+    /**
+     * A change as stored in the ring; its sequence is the ring's, added when it is sent.
+     */
+    private record Change(CustomerChangeEvent.Type type, Long customerId, CustomerResponse customer,
+                          Instant occurredAt) {
+
+        CustomerChangeEvent toEvent(long sequence) {
+            return new CustomerChangeEvent(sequence, type, customerId, customer, occurredAt);
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        volatile long next;
+        volatile Thread thread;
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, long next) {
+            this.emitter = emitter;
+            this.next = next;
+        }
+
+        void close() {
+            closed = true;
+            Thread current = thread;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+
+    public CustomerChangeFeed(@Value("${spring.app.customer.changeFeedCapacity}") int capacity,
+                              @Value("${spring.app.customer.changeFeedMaxSubscribers}") int maxSubscribers,
+                              @Value("${spring.app.customer.changeFeedHeartbeatMs}") long heartbeatMs,
+                              MeterRegistry meterRegistry) {
+        this.ring = new SequencedRingBuffer<>(capacity);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+        this.publishedEvents = Counter.builder("customer.changes.published")
+                .description("Customer change events appended to the change feed")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("customer.changes.resyncs")
+                .description("Change feed subscribers told to resync because the events they need are gone")
+                .register(meterRegistry);
+        Gauge.builder("customer.changes.subscribers", openStreams, AtomicInteger::get)
+                .description("Open change feed streams")
+                .register(meterRegistry);
+    }
+
+    public void created(CustomerResponse customer) {
+        publish(CustomerChangeEvent.Type.CREATED, customer.getId(), customer);
+    }
+
+    /**
+     * {@code customer} may be null when the new state was not read back.
+     */
+    public void updated(Long id, CustomerResponse customer) {
+        publish(CustomerChangeEvent.Type.UPDATED, id, customer);
+    }
+
+    public void deleted(Long id) {
+        publish(CustomerChangeEvent.Type.DELETED, id, null);
+    }
+
+    /**
+     * Opens a stream of changes made after the event named by {@code lastEventId}, or from now on if it is null.
+     * Throws {@link ServiceBusyException} when {@code changeFeedMaxSubscribers} streams are already open.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (openStreams.incrementAndGet() > maxSubscribers) {
+            openStreams.decrementAndGet();
+            throw new ServiceBusyException("Too many change feed subscribers, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter, resumeFrom(lastEventId));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        try {
+            senders.execute(() -> stream(subscriber));
+        } catch (RuntimeException e) {
+            release(subscriber);
+            throw e;
+        }
+        return emitter;
+    }
+
+    public long head() {
+        return ring.head();
+    }
+
+    String eventId(long sequence) {
+        return stream + ":" + sequence;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void publish(CustomerChangeEvent.Type type, Long id, CustomerResponse customer) {
+        // Built before a sequence is claimed, so nothing runs between the claim and the store.
+        ring.publish(new Change(type, id, customer, Instant.now()));
+        publishedEvents.increment();
+        for (Subscriber subscriber : subscribers) {
+            Thread thread = subscriber.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * The first sequence to send for {@code lastEventId}, or {@link #RESYNC} if it cannot be resumed from.
+     */
+    private long resumeFrom(String lastEventId) {
+        long head = ring.head();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return head + 1;
+        }
+        int separator = lastEventId.indexOf(':');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(stream)) {
+            return RESYNC;
+        }
+        try {
+            long last = Long.parseLong(lastEventId.substring(separator + 1));
+            return last >= 0 && last <= head ? last + 1 : RESYNC;
+        } catch (NumberFormatException e) {
+            return RESYNC;
+        }
+    }
+
+    private void stream(Subscriber subscriber) {
+        subscriber.thread = Thread.currentThread();
+        SseEmitter emitter = subscriber.emitter;
+        List<Change> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            // Commits the response headers so the client sees the stream open before the first change.
+            emitter.send(SseEmitter.event().comment("stream " + stream));
+            long lastSent = System.nanoTime();
+            while (!subscriber.closed && !Thread.currentThread().isInterrupted()) {
+                batch.clear();
+                int read = subscriber.next == RESYNC ? -1 : ring.read(subscriber.next, BATCH_SIZE, batch);
+                if (read < 0) {
+                    resync(emitter);
+                    return;
+                }
+                if (read > 0) {
+                    long sequence = subscriber.next;
+                    for (Change change : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(sequence))
+                                .name(change.type().name())
+                                .data(change.toEvent(sequence), MediaType.APPLICATION_JSON));
+                        sequence++;
+                    }
+                    subscriber.next += read;
+                    lastSent = System.nanoTime();
+                    continue;
+                }
+                long idle = System.nanoTime() - lastSent;
+                if (idle >= heartbeatNanos) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    lastSent = System.nanoTime();
+                    idle = 0;
+                }
+                // A publish between the read and this park leaves a permit, so no wake-up is lost.
+                LockSupport.parkNanos(this, heartbeatNanos - idle);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter was completed; nothing left to send to.
+        } finally {
+            release(subscriber);
+        }
+    }
+
+    private void release(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            openStreams.decrementAndGet();
+        }
+    }
+
+    private void resync(SseEmitter emitter) throws IOException {
+        long head = ring.head();
+        resyncs.increment();
+        emitter.send(SseEmitter.event()
+                .id(eventId(head))
+                .name("resync")
+                .data(Map.of("sequence", head), MediaType.APPLICATION_JSON));
+        emitter.complete();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.exception.DuplicateCustomerException;
+import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.repository.CustomerContact;
+import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.utils.ContactKeyIndex;
+import com.example.customerservice.utils.ContactNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of every customer's normalized email and phone, so creates and updates can be checked for
+ * duplicates without a query. A miss is authoritative; a hit is confirmed against the database, which also weeds
+ * out entries left behind by deletes. The {@code uk_customer_contact} unique index stays the source of truth for
+ * races the in-memory check cannot see, and {@link #translate} turns its violation into the same 409.
+ * <p>
+ * Built from the table when the application is ready; writes made before then are still caught by the database.
+ */
+@Slf4j
+@Component
+public class CustomerContactIndex {
+
+    static final String CONSTRAINT = "uk_customer_contact";
+
+    private final CustomerRepository customerRepository;
+    private final ContactKeyIndex index;
+    private final ToLongBiFunction<String, String> keyFunction;
+
+    @Autowired
+    public CustomerContactIndex(CustomerRepository customerRepository,
+                                @Value("${spring.app.customer.contactIndexCapacity}") int expectedCustomers,
+                                MeterRegistry meterRegistry) {
+        this(customerRepository, expectedCustomers, meterRegistry, ContactKeyIndex::key);
+    }
+
+    /**
+     * {@code keyFunction} replaces {@link ContactKeyIndex#key} so tests can force hash collisions.
+     */
+    CustomerContactIndex(CustomerRepository customerRepository, int expectedCustomers, MeterRegistry meterRegistry,
+                         ToLongBiFunction<String, String> keyFunction) {
+        this.customerRepository = customerRepository;
+        this.keyFunction = keyFunction;
+        this.index = new ContactKeyIndex(expectedCustomers);
+        Gauge.builder("customer.contact.index.size", index, ContactKeyIndex::size)
+                .description("Customers held in the in-memory duplicate-contact index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        try (Stream<CustomerContact> contacts = customerRepository.streamContacts()) {
+            contacts.forEach(this::add);
+        }
+        log.info("Contact index built with {} customers in {} ms", index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Throws {@link DuplicateCustomerException} if another customer already has this email and phone (raw values,
+     * normalized here). {@code excludeId} is the customer being updated, or null.
+     */
+    public void checkAvailable(String email, String phone, Long excludeId) {
+        long existingId = findExisting(ContactNormalizer.email(email), ContactNormalizer.phone(phone), excludeId);
+        if (existingId != 0) {
+            throw new DuplicateCustomerException(existingId);
+        }
+    }
+
+    /**
+     * Id of the customer other than {@code excludeId} holding these normalized contacts, or 0 if there is none.
+     */
+    public long findExisting(String normalizedEmail, String normalizedPhone, Long excludeId) {
+        long key = keyFunction.applyAsLong(normalizedEmail, normalizedPhone);
+        if (key == 0) {
+            return 0;
+        }
+        long indexedId = index.get(key);
+        if (indexedId == 0 || (excludeId != null && indexedId == excludeId)) {
+            return 0;
+        }
+        // Confirm: the entry may be a deleted customer or another customer whose contacts hash the same.
+        Long existingId = customerRepository.findIdByContact(normalizedEmail, normalizedPhone)
+                .filter(id -> excludeId == null || !id.equals(excludeId))
+                .orElse(null);
+        if (existingId != null && existingId == indexedId) {
+            return existingId;
+        }
+        // Only a stale entry is replaced; a colliding customer keeps its entry.
+        if (!holdsKey(indexedId, key)) {
+            if (existingId == null) {
+                index.remove(key, indexedId);
+            } else {
+                index.put(key, existingId);
+            }
+        }
+        return existingId == null ? 0 : existingId;
+    }
+
+    /**
+     * Records a customer that has just been written.
+     */
+    public void added(CustomerEntity customer) {
+        if (customer.getId() == null) {
+            return;
+        }
+        index.put(keyFunction.applyAsLong(customer.getNormalizedEmail(), customer.getNormalizedPhone()), customer.getId());
+    }
+
+    /**
+     * Moves a customer whose contacts changed from its previous normalized key to its current one.
+     */
+    public void changed(Long id, String previousEmail, String previousPhone, String currentEmail, String currentPhone) {
+        long previousKey = keyFunction.applyAsLong(previousEmail, previousPhone);
+        long currentKey = keyFunction.applyAsLong(currentEmail, currentPhone);
+        if (previousKey != currentKey) {
+            index.remove(previousKey, id);
+        }
+        index.put(currentKey, id);
+    }
+
+    /**
+     * Converts a violation of {@code uk_customer_contact} into {@link DuplicateCustomerException} naming the
+     * customer that won the race; any other violation is rethrown as is.
+     */
+    public RuntimeException translate(DataIntegrityViolationException e, String email, String phone) {
+        if (isContactViolation(e)) {
+            String normalizedEmail = ContactNormalizer.email(email);
+            String normalizedPhone = ContactNormalizer.phone(phone);
+            Long existingId = customerRepository.findIdByContact(normalizedEmail, normalizedPhone).orElse(null);
+            if (existingId != null) {
+                index.put(keyFunction.applyAsLong(normalizedEmail, normalizedPhone), existingId);
+                return new DuplicateCustomerException(existingId);
+            }
+        }
+        return e;
+    }
+
+    public static boolean isContactViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(CONSTRAINT);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void add(CustomerContact contact) {
+        index.put(keyFunction.applyAsLong(contact.normalizedEmail(), contact.normalizedPhone()), contact.id());
+    }
+
+    /**
+     * Whether customer {@code id} still exists with contacts that map to {@code key}.
+     */
+    private boolean holdsKey(long id, long key) {
+        return customerRepository.findContactById(id)
+                .map(contact -> keyFunction.applyAsLong(contact.normalizedEmail(), contact.normalizedPhone()) == key)
+                .orElse(false);
+    }
+}
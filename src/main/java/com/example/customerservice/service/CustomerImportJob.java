@@ -0,0 +1,93 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.model.response.ImportJobResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import, updated by the parsing and writing threads and read by status requests.
+ */
+class CustomerImportJob {
+
+    enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    static final int MAX_REPORTED_REJECTS = 100;
+
+    private final String id;
+    private final CustomerImportService.Format format;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<ImportJobResponse.RejectedRow> rejectedRows = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    CustomerImportJob(String id, CustomerImportService.Format format) {
+        this.id = id;
+        this.format = format;
+    }
+
+    String id() {
+        return id;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(int rows) {
+        imported.addAndGet(rows);
+    }
+
+    void reject(long line, String reason) {
+        if (rejected.incrementAndGet() <= MAX_REPORTED_REJECTS) {
+            synchronized (rejectedRows) {
+                rejectedRows.add(new ImportJobResponse.RejectedRow(line, reason));
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        error = reason;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    ImportJobResponse toResponse() {
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        long read = rowsRead.get();
+        double rowsPerSecond = 0;
+        if (started != null) {
+            long millis = Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+            rowsPerSecond = millis > 0 ? read * 1000.0 / millis : 0;
+        }
+        List<ImportJobResponse.RejectedRow> rows;
+        synchronized (rejectedRows) {
+            rows = List.copyOf(rejectedRows);
+        }
+        return new ImportJobResponse(id, format.name(), status.name(), read, imported.get(), rejected.get(),
+                rowsPerSecond, createdAt, started, finished, error, rows);
+    }
+}
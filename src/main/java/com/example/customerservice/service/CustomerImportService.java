@@ -0,0 +1,416 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.exception.DuplicateCustomerException;
+import com.example.customerservice.exception.ImportJobNotFoundException;
+import com.example.customerservice.exception.ServiceBusyException;
+import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.model.request.CustomerRequest;
+import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.model.response.ImportJobResponse;
+import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.utils.ContactNormalizer;
+import com.example.customerservice.utils.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports customers from a CSV or NDJSON upload in the background. The upload is spooled to a temporary file
+ * and the request returns a job id straight away. A job thread then parses the file one row at a time, checks
+ * each row against the {@link CustomerRequest} constraints and hands chunks of entities to a writer thread, which
+ * inserts them through {@link CustomerRepository#insertAll} (one transaction per chunk). The queue between the
+ * two holds at most {@code importQueueChunks} chunks, so memory stays bounded however large the file is and
+ * parsing overlaps with database writes.
+ * <p>
+ * Invalid rows are counted and reported but do not stop the import. Rows whose normalized email and phone
+ * belong to an existing customer are rejected by the parser through {@link CustomerContactIndex}; a chunk that
+ * still hits {@code uk_customer_contact} (a duplicate within the file, or a concurrent write) is retried one row at
+ * a time so only the offending rows are rejected. Committed chunks stay committed if the job later fails.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerImportService.class);
+    private static final List<String> CSV_COLUMNS = List.of("firstname", "lastname", "phone", "email");
+    private static final List<Row> END = List.of();
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import format " + contentType);
+        }
+    }
+
+    private record Row(long line, CustomerRequest customer, String error) {
+    }
+
+    private interface RowSource {
+        /** The next non-blank row, or null at the end of the file. */
+        Row next() throws IOException;
+    }
+
+    private final CustomerRepository customerRepository;
+    private final CustomerContactIndex contactIndex;
+    private final CustomerChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int queueChunks;
+    private final long maxBytes;
+    private final long jobRetentionMs;
+    private final ThreadPoolExecutor jobExecutor;
+    private final ExecutorService writerExecutor;
+    private final Map<String, CustomerImportJob> jobs = new ConcurrentHashMap<>();
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public CustomerImportService(CustomerRepository customerRepository,
+                                 CustomerContactIndex contactIndex,
+                                 CustomerChangeFeed changeFeed,
+                                 ObjectMapper objectMapper,
+                                 @Value("${spring.app.customer.importChunkSize}") int chunkSize,
+                                 @Value("${spring.app.customer.importQueueChunks}") int queueChunks,
+                                 @Value("${spring.app.customer.importThreads}") int importThreads,
+                                 @Value("${spring.app.customer.importQueueCapacity}") int importQueueCapacity,
+                                 @Value("${spring.app.customer.importMaxBytes}") long maxBytes,
+                                 @Value("${spring.app.customer.importJobRetentionMs}") long jobRetentionMs,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        this.contactIndex = contactIndex;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.queueChunks = queueChunks;
+        this.maxBytes = maxBytes;
+        this.jobRetentionMs = jobRetentionMs;
+        this.jobExecutor = new ThreadPoolExecutor(importThreads, importThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, importQueueCapacity)), threadFactory("customer-import-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Each running job has at most one writer, so this pool never queues.
+        this.writerExecutor = Executors.newFixedThreadPool(importThreads, threadFactory("customer-import-writer-", virtualThreads));
+        this.importedRows = importRows(meterRegistry, "imported");
+        this.rejectedRows = importRows(meterRegistry, "rejected");
+    }
+
+    private static Counter importRows(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customer.import.rows")
+                .description("Rows handled by customer imports, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The pools stay fixed-size either way, so {@code importThreads} still bounds concurrent imports; with
+     * {@code spring.threads.virtual.enabled} their threads are virtual, as for the other executors.
+     */
+    private static ThreadFactory threadFactory(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Spools {@code body} to a temporary file and queues the import. Throws {@link ServiceBusyException} when
+     * {@code importThreads} imports are running and {@code importQueueCapacity} more are waiting.
+     */
+    public ImportJobResponse startImport(InputStream body, Format format) throws IOException {
+        Path file = Files.createTempFile("customer-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            spool(body, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        CustomerImportJob job = new CustomerImportJob(UUID.randomUUID().toString(), format);
+        jobs.put(job.id(), job);
+        try {
+            jobExecutor.execute(() -> run(job, file, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            Files.deleteIfExists(file);
+            throw new ServiceBusyException("Too many imports in progress, please retry later");
+        }
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getImport(String jobId) {
+        CustomerImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException("Import job not found with id " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.customer.importJobRetentionMs}")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minusMillis(jobRetentionMs);
+        jobs.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        writerExecutor.shutdownNow();
+    }
+
+    private void spool(InputStream body, Path file) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new IllegalArgumentException("Import file is larger than " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void run(CustomerImportJob job, Path file, Format format) {
+        job.start();
+        BlockingQueue<List<Row>> chunks = new ArrayBlockingQueue<>(Math.max(1, queueChunks));
+        Future<?> writer = writerExecutor.submit(() -> write(job, chunks));
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            skipByteOrderMark(reader);
+            RowSource rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                job.rowRead();
+                String problem = row.error() != null ? row.error() : validate(row.customer());
+                if (problem == null) {
+                    problem = checkDuplicate(row.customer());
+                }
+                if (problem != null) {
+                    job.reject(row.line(), problem);
+                    rejectedRows.increment();
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    hand(chunks, chunk, writer);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                hand(chunks, chunk, writer);
+            }
+            hand(chunks, END, writer);
+            writer.get();
+            job.complete();
+        } catch (ExecutionException e) {
+            fail(job, e.getCause());
+        } catch (InterruptedException e) {
+            writer.cancel(true);
+            Thread.currentThread().interrupt();
+            fail(job, e);
+        } catch (Exception e) {
+            writer.cancel(true);
+            fail(job, e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Cannot delete import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void fail(CustomerImportJob job, Throwable cause) {
+        logger.error("Customer import {} failed", job.id(), cause);
+        job.fail(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+    }
+
+    /**
+     * Blocks while the writer is behind; gives up if the writer has stopped, surfacing its failure.
+     */
+    private static void hand(BlockingQueue<List<Row>> chunks, List<Row> chunk, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("Import writer stopped");
+            }
+        }
+    }
+
+    private Void write(CustomerImportJob job, BlockingQueue<List<Row>> chunks) throws InterruptedException {
+        while (true) {
+            List<Row> chunk = chunks.take();
+            if (chunk == END) {
+                return null;
+            }
+            List<CustomerEntity> customers = chunk.stream().map(CustomerImportService::toEntity).toList();
+            try {
+                customerRepository.insertAll(customers);
+            } catch (DataIntegrityViolationException e) {
+                if (!CustomerContactIndex.isContactViolation(e)) {
+                    throw e;
+                }
+                writeRowByRow(job, chunk);
+                continue;
+            }
+            customers.forEach(this::added);
+            job.imported(customers.size());
+            importedRows.increment(customers.size());
+        }
+    }
+
+    /**
+     * Fallback for a chunk that collided on {@code uk_customer_contact}: inserts each row on its own, with fresh
+     * entities since the failed chunk's were already assigned ids, and rejects the rows that collide.
+     */
+    private void writeRowByRow(CustomerImportJob job, List<Row> chunk) {
+        for (Row row : chunk) {
+            CustomerEntity customer = toEntity(row);
+            try {
+                customerRepository.insertAll(List.of(customer));
+            } catch (DataIntegrityViolationException e) {
+                RuntimeException translated = contactIndex.translate(e, customer.getEmail(), customer.getPhone());
+                if (!(translated instanceof DuplicateCustomerException duplicate)) {
+                    throw translated;
+                }
+                job.reject(row.line(), duplicateOf(duplicate.getExistingId()));
+                rejectedRows.increment();
+                continue;
+            }
+            added(customer);
+            job.imported(1);
+            importedRows.increment();
+        }
+    }
+
+    private void added(CustomerEntity customer) {
+        contactIndex.added(customer);
+        changeFeed.created(new CustomerResponse(customer.getId(), customer.getFirstname(), customer.getLastname(),
+                customer.getPhone(), customer.getEmail()));
+    }
+
+    private String checkDuplicate(CustomerRequest customer) {
+        long existingId = contactIndex.findExisting(ContactNormalizer.email(customer.getEmail()),
+                ContactNormalizer.phone(customer.getPhone()), null);
+        return existingId != 0 ? duplicateOf(existingId) : null;
+    }
+
+    private static String duplicateOf(long existingId) {
+        return "Duplicate of customer " + existingId;
+    }
+
+    private static CustomerEntity toEntity(Row row) {
+        CustomerRequest customer = row.customer();
+        return new CustomerEntity(null, customer.getFirstname(), customer.getLastname(),
+                customer.getPhone(), customer.getEmail());
+    }
+
+    private String validate(CustomerRequest customer) {
+        if (customer == null) {
+            return "Not a customer object";
+        }
+        // The same rules as CustomerRequest's @NotBlank fields, checked here since no Bean Validation provider runs.
+        List<String> problems = new ArrayList<>(4);
+        requireNonBlank(customer.getEmail(), "email", problems);
+        requireNonBlank(customer.getFirstname(), "firstname", problems);
+        requireNonBlank(customer.getLastname(), "lastname", problems);
+        requireNonBlank(customer.getPhone(), "phone", problems);
+        return problems.isEmpty() ? null : String.join(", ", problems);
+    }
+
+    private static void requireNonBlank(String value, String field, List<String> problems) {
+        if (value == null || value.isBlank()) {
+            problems.add(field + " must not be blank");
+        }
+    }
+
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    private static RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        if (!names.containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must name the columns " + String.join(",", CSV_COLUMNS));
+        }
+        int firstname = names.indexOf("firstname");
+        int lastname = names.indexOf("lastname");
+        int phone = names.indexOf("phone");
+        int email = names.indexOf("email");
+        return () -> {
+            List<String> record = csv.next();
+            while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+                record = csv.next();
+            }
+            if (record == null) {
+                return null;
+            }
+            if (record.size() != header.size()) {
+                return new Row(csv.recordLine(), null,
+                        "Expected " + header.size() + " fields but found " + record.size());
+            }
+            return new Row(csv.recordLine(), new CustomerRequest(null, record.get(firstname), record.get(lastname),
+                    record.get(phone), record.get(email)), null);
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        long[] line = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new Row(line[0], objectMapper.readValue(text, CustomerRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line[0], null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+}
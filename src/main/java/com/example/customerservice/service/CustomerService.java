@@ -1,23 +1,72 @@
 package com.example.customerservice.service;
 
 import com.example.customerservice.exception.CustomerNotFoundException;
+import com.example.customerservice.exception.DuplicateCustomerException;
 import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.model.request.CustomerPatchRequest;
 import com.example.customerservice.model.request.CustomerRequest;
+import com.example.customerservice.model.response.BulkCreateResponse;
+import com.example.customerservice.model.response.BulkDeleteResponse;
+import com.example.customerservice.model.response.CacheStatsResponse;
+import com.example.customerservice.model.response.CustomerPageResponse;
 import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.repository.CustomerContact;
 import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.repository.CustomerTableVersion;
+import com.example.customerservice.utils.ContactNormalizer;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerCache customerCache;
+    private final CustomerContactIndex contactIndex;
+    private final CustomerChangeFeed changeFeed;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int bulkChunkSize;
+    private final int maxBulkSize;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository,
+                           CustomerCache customerCache,
+                           CustomerContactIndex contactIndex,
+                           CustomerChangeFeed changeFeed,
+                           @Value("${spring.app.customer.defaultPageSize}") int defaultPageSize,
+                           @Value("${spring.app.customer.maxPageSize}") int maxPageSize,
+                           @Value("${spring.app.customer.bulkChunkSize}") int bulkChunkSize,
+                           @Value("${spring.app.customer.maxBulkSize}") int maxBulkSize) {
         this.customerRepository = customerRepository;
+        this.customerCache = customerCache;
+        this.contactIndex = contactIndex;
+        this.changeFeed = changeFeed;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.bulkChunkSize = bulkChunkSize;
+        this.maxBulkSize = maxBulkSize;
     }
 
     public List<CustomerResponse> getAllCustomers() {
@@ -26,46 +75,440 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Same result as {@link #getAllCustomers()} but selects only the response columns into DTOs, skipping entity
+     * hydration, the persistence context and dirty checking.
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerResponse> getAllCustomersProjected() {
+        return customerRepository.findAllResponses();
+    }
+
+    public CustomerPageResponse getCustomerPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = decodeCursor(cursor);
+
+        // Fetch one extra row so we know whether another page exists without a count query.
+        List<CustomerEntity> rows = customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<CustomerResponse> customers = rows.stream()
+                .limit(pageSize)
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasMore ? encodeCursor(customers.get(customers.size() - 1).getId()) : null;
+        return new CustomerPageResponse(customers, nextCursor);
+    }
+
+    /**
+     * Searches by exactly one of exact {@code email}, exact {@code phone} or case-insensitive {@code name} prefix
+     * (matched against {@code "firstname lastname"}). Every variant is a keyset walk of its own index, so the cost
+     * depends on the page size, not the table size.
+     */
+    public CustomerPageResponse searchCustomers(String email, String phone, String name, String cursor, Integer size) {
+        int criteria = (email != null ? 1 : 0) + (phone != null ? 1 : 0) + (name != null ? 1 : 0);
+        if (criteria != 1) {
+            throw new IllegalArgumentException("Exactly one of email, phone or name is required");
+        }
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        if (name != null) {
+            String prefix = requireSearchKey(ContactNormalizer.namePrefix(name), "name");
+            String afterName = "";
+            long afterId = 0L;
+            if (cursor != null && !cursor.isEmpty()) {
+                String decoded = decodeCursorValue(cursor);
+                int separator = decoded.indexOf(':');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                afterId = parseCursorId(decoded.substring(0, separator));
+                afterName = decoded.substring(separator + 1);
+            }
+            List<CustomerEntity> rows = customerRepository.findByNamePrefix(prefix, prefixUpperBound(prefix),
+                    afterName, afterId, limit);
+            return toSearchPage(rows, pageSize, last -> encodeCursorValue(last.getId() + ":" + last.getNormalizedName()));
+        }
+
+        long afterId = decodeCursor(cursor);
+        List<CustomerEntity> rows = email != null
+                ? customerRepository.findByNormalizedEmailAndIdGreaterThanOrderByIdAsc(
+                        requireSearchKey(ContactNormalizer.email(email), "email"), afterId, limit)
+                : customerRepository.findByNormalizedPhoneAndIdGreaterThanOrderByIdAsc(
+                        requireSearchKey(ContactNormalizer.phone(phone), "phone"), afterId, limit);
+        return toSearchPage(rows, pageSize, last -> encodeCursor(last.getId()));
+    }
+
+    /**
+     * Feeds every customer to {@code sink} one row at a time. Each entity is detached once it has been
+     * handed off, so memory stays flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<CustomerResponse> sink) {
+        try (Stream<CustomerEntity> customers = customerRepository.streamAllOrderById()) {
+            customers.forEach(customer -> {
+                sink.accept(convertToResponse(customer));
+                customerRepository.detach(customer);
+            });
+        }
+    }
+
+    /**
+     * Projection counterpart of {@link #exportCustomers(Consumer)}: rows are read straight into response DTOs,
+     * so there is nothing to map or detach.
+     */
+    @Transactional(readOnly = true)
+    public void streamCustomersProjected(Consumer<CustomerResponse> sink) {
+        try (Stream<CustomerResponse> customers = customerRepository.streamAllResponses()) {
+            customers.forEach(sink);
+        }
+    }
+
     public Optional<CustomerResponse> getCustomerById(Long id) {
-        return customerRepository.findById(id)
-                .map(this::convertToResponse);
+        return customerCache.get(id, key -> customerRepository.findById(key).map(this::convertToResponse));
+    }
+
+    /**
+     * Projection counterpart of {@link #getCustomerById(Long)}. Deliberately not {@code @Transactional}: the
+     * repository query already runs read-only, and cache hits must not open a transaction or borrow a connection.
+     */
+    public Optional<CustomerResponse> getCustomerByIdProjected(Long id) {
+        return customerCache.get(id, customerRepository::findResponseById);
+    }
+
+    /**
+     * The customer's {@code updateDate}, for conditional GETs; empty if the customer does not exist.
+     */
+    public Optional<LocalDateTime> getCustomerVersion(Long id) {
+        return customerCache.getVersion(id, customerRepository::findUpdateDateById);
+    }
+
+    /**
+     * Row count and latest {@code updateDate} of the whole table. Any insert, update or delete changes at least
+     * one of them, so together they version every list and page response.
+     */
+    public CustomerTableVersion getCustomersVersion() {
+        return customerRepository.findTableVersion();
     }
 
+    /**
+     * Rejects a customer whose normalized email and phone already belong to another with
+     * {@link DuplicateCustomerException}.
+     */
     public CustomerResponse createCustomer(CustomerRequest customer) {
-        CustomerEntity customerEntity = new CustomerEntity();
-        customerEntity.setFirstname(customer.getFirstname());
-        customerEntity.setLastname(customer.getLastname());
-        customerEntity.setPhone(customer.getPhone());
-        customerEntity.setEmail(customer.getEmail());
-        customerRepository.save(customerEntity);
-        return convertToResponse(customerEntity);
+        contactIndex.checkAvailable(customer.getEmail(), customer.getPhone(), null);
+        CustomerEntity customerEntity = convertToEntity(customer);
+        try {
+            customerRepository.save(customerEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw contactIndex.translate(e, customer.getEmail(), customer.getPhone());
+        }
+        contactIndex.added(customerEntity);
+        CustomerResponse response = convertToResponse(customerEntity);
+        customerCache.put(response);
+        customerCache.putVersion(response.getId(), customerEntity.getUpdateDate());
+        changeFeed.created(response);
+        return response;
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        CacheStats stats = customerCache.stats();
+        return new CacheStatsResponse(customerCache.size(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    /**
+     * Inserts customers in chunks of {@code bulkChunkSize}, each chunk in its own transaction. A failing chunk
+     * rolls back on its own; chunks committed before it stay committed.
+     * <p>
+     * Every row is checked for duplicates before anything is written: two rows sharing a contact fail the request
+     * with 400, a row matching an existing customer with {@link DuplicateCustomerException}.
+     */
+    public BulkCreateResponse createCustomers(List<CustomerRequest> customers) {
+        if (customers == null || customers.isEmpty()) {
+            throw new IllegalArgumentException("No customers supplied");
+        }
+        if (customers.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " customers can be created per request");
+        }
+        checkBulkDuplicates(customers);
+        List<Long> ids = new ArrayList<>(customers.size());
+        for (int from = 0; from < customers.size(); from += bulkChunkSize) {
+            List<CustomerEntity> chunk = customers.subList(from, Math.min(from + bulkChunkSize, customers.size()))
+                    .stream()
+                    .map(this::convertToEntity)
+                    .collect(Collectors.toList());
+            try {
+                customerRepository.insertAll(chunk);
+            } catch (DataIntegrityViolationException e) {
+                throw translateBulk(e, chunk);
+            }
+            for (CustomerEntity customer : chunk) {
+                ids.add(customer.getId());
+                contactIndex.added(customer);
+                changeFeed.created(convertToResponse(customer));
+            }
+        }
+        return new BulkCreateResponse(ids.size(), ids);
     }
 
     public CustomerResponse updateCustomer(Long id, CustomerRequest updatedCustomer) {
         CustomerEntity customerEntity = customerRepository.findById(id)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id " + updatedCustomer.getId()));
+        contactIndex.checkAvailable(updatedCustomer.getEmail(), updatedCustomer.getPhone(), id);
+        String previousEmail = customerEntity.getNormalizedEmail();
+        String previousPhone = customerEntity.getNormalizedPhone();
 
         customerEntity.setFirstname(updatedCustomer.getFirstname());
         customerEntity.setLastname(updatedCustomer.getLastname());
         customerEntity.setPhone(updatedCustomer.getPhone());
         customerEntity.setEmail(updatedCustomer.getEmail());
-        CustomerEntity updatedCustomerEntity = customerRepository.save(customerEntity);
-        return convertToResponse(updatedCustomerEntity);
+        CustomerEntity updatedCustomerEntity;
+        try {
+            updatedCustomerEntity = customerRepository.save(customerEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw contactIndex.translate(e, updatedCustomer.getEmail(), updatedCustomer.getPhone());
+        }
+        contactIndex.changed(id, previousEmail, previousPhone,
+                updatedCustomerEntity.getNormalizedEmail(), updatedCustomerEntity.getNormalizedPhone());
+        CustomerResponse response = convertToResponse(updatedCustomerEntity);
+        customerCache.put(response);
+        customerCache.putVersion(id, updatedCustomerEntity.getUpdateDate());
+        changeFeed.updated(id, response);
+        return response;
+    }
+
+    /**
+     * Applies the non-null fields of {@code patch} with a single UPDATE. Nothing is read first unless the email
+     * or phone changes, in which case the current contact columns are read to check the new pair for duplicates.
+     */
+    public void patchCustomer(Long id, CustomerPatchRequest patch) {
+        if (patch.getFirstname() == null && patch.getLastname() == null
+                && patch.getPhone() == null && patch.getEmail() == null) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        requireNonBlank(patch.getFirstname(), "firstname");
+        requireNonBlank(patch.getLastname(), "lastname");
+        requireNonBlank(patch.getPhone(), "phone");
+        requireNonBlank(patch.getEmail(), "email");
+
+        CustomerContact previous = null;
+        String email = null;
+        String phone = null;
+        if (patch.getEmail() != null || patch.getPhone() != null) {
+            previous = customerRepository.findContactById(id)
+                    .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id " + id));
+            email = patch.getEmail() != null ? ContactNormalizer.email(patch.getEmail()) : previous.normalizedEmail();
+            phone = patch.getPhone() != null ? ContactNormalizer.phone(patch.getPhone()) : previous.normalizedPhone();
+            long existingId = contactIndex.findExisting(email, phone, id);
+            if (existingId != 0) {
+                throw new DuplicateCustomerException(existingId);
+            }
+        }
+
+        int updated;
+        try {
+            updated = customerRepository.patchById(id,
+                    patch.getFirstname(),
+                    patch.getLastname(),
+                    patch.getPhone(),
+                    patch.getEmail(),
+                    ContactNormalizer.phone(patch.getPhone()),
+                    ContactNormalizer.email(patch.getEmail()),
+                    LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        } catch (DataIntegrityViolationException e) {
+            throw contactIndex.translate(e, email, phone);
+        }
+        customerCache.invalidate(id);
+        if (updated == 0) {
+            throw new CustomerNotFoundException("Customer not found with id " + id);
+        }
+        if (previous != null) {
+            contactIndex.changed(id, previous.normalizedEmail(), previous.normalizedPhone(), email, phone);
+        }
+        changeFeed.updated(id, null);
     }
 
     public boolean deleteCustomerById(Long id) {
-               if (!customerRepository.existsById(id)) {
+        if (customerRepository.deleteOneById(id) == 0) {
             throw new CustomerNotFoundException("Customer not found with id " + id);
         }
-        customerRepository.deleteById(id);
+        customerCache.invalidate(id);
+        changeFeed.deleted(id);
         return true;
     }
 
-    private CustomerResponse convertToResponse(CustomerEntity customer) {
+    /**
+     * Deletes up to {@code maxBulkSize} ids, {@code bulkChunkSize} per transaction, and reports which ids were
+     * deleted and which did not exist. Duplicate ids are processed once.
+     */
+    public BulkDeleteResponse deleteCustomers(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No ids supplied");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Ids must not be null");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " customers can be deleted per request");
+        }
+        List<Long> deletedIds = new ArrayList<>();
+        List<Long> notFoundIds = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += bulkChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + bulkChunkSize, distinctIds.size()));
+            Set<Long> deleted = new HashSet<>(customerRepository.deleteAllByIdIn(chunk));
+            for (Long id : chunk) {
+                if (deleted.contains(id)) {
+                    deletedIds.add(id);
+                    customerCache.invalidate(id);
+                    changeFeed.deleted(id);
+                } else {
+                    notFoundIds.add(id);
+                }
+            }
+        }
+        return new BulkDeleteResponse(deletedIds.size(), deletedIds, notFoundIds);
+    }
+
+    /**
+     * Fails the request if two of its rows share a normalized email and phone, or if any row matches an existing
+     * customer.
+     */
+    private void checkBulkDuplicates(List<CustomerRequest> customers) {
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < customers.size(); i++) {
+            CustomerRequest customer = customers.get(i);
+            String email = ContactNormalizer.email(customer.getEmail());
+            String phone = ContactNormalizer.phone(customer.getPhone());
+            if (email == null || phone == null) {
+                continue;
+            }
+            Integer first = seen.putIfAbsent(email + '\n' + phone, i);
+            if (first != null) {
+                throw new IllegalArgumentException("Customers " + first + " and " + i + " have the same email and phone");
+            }
+            long existingId = contactIndex.findExisting(email, phone, null);
+            if (existingId != 0) {
+                throw new DuplicateCustomerException(existingId);
+            }
+        }
+    }
+
+    /**
+     * A chunk lost a race with a concurrent write: report the customer it collided with.
+     */
+    private RuntimeException translateBulk(DataIntegrityViolationException e, List<CustomerEntity> chunk) {
+        if (CustomerContactIndex.isContactViolation(e)) {
+            for (CustomerEntity customer : chunk) {
+                RuntimeException translated = contactIndex.translate(e, customer.getEmail(), customer.getPhone());
+                if (translated instanceof DuplicateCustomerException) {
+                    return translated;
+                }
+            }
+        }
+        return e;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private String encodeCursor(long lastId) {
+        return encodeCursorValue(Long.toString(lastId));
+    }
+
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        return parseCursorId(decodeCursorValue(cursor));
+    }
+
+    private String encodeCursorValue(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursorValue(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private long parseCursorId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private void requireNonBlank(String value, String field) {
+        if (value != null && value.isBlank()) {
+            throw new IllegalArgumentException(field + " must not be blank");
+        }
+    }
+
+    private String requireSearchKey(String normalized, String field) {
+        if (normalized == null) {
+            throw new IllegalArgumentException("Search " + field + " must not be blank");
+        }
+        return normalized;
+    }
+
+    /**
+     * Smallest string greater than every string starting with {@code prefix}, turning the prefix match into a
+     * plain index range. Trailing {@link Character#MAX_VALUE} chars cannot be incremented and are dropped first;
+     * a prefix made only of them has no upper bound, so null leaves the range open.
+     */
+    private String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+
+    private CustomerPageResponse toSearchPage(List<CustomerEntity> rows, int pageSize,
+                                              Function<CustomerEntity, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<CustomerEntity> page = hasMore ? rows.subList(0, pageSize) : rows;
+        List<CustomerResponse> customers = page.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CustomerPageResponse(customers, nextCursor);
+    }
+
+    private CustomerEntity convertToEntity(CustomerRequest customer) {
+        CustomerEntity customerEntity = new CustomerEntity();
+        customerEntity.setFirstname(customer.getFirstname());
+        customerEntity.setLastname(customer.getLastname());
+        customerEntity.setPhone(customer.getPhone());
+        customerEntity.setEmail(customer.getEmail());
+        return customerEntity;
+    }
+
+    CustomerResponse convertToResponse(CustomerEntity customer) {
         return new CustomerResponse(customer.getId(),
                 customer.getFirstname(),
                 customer.getLastname(),
                 customer.getPhone(),
                 customer.getEmail());
     }
-}
\ No newline at end of file
+}
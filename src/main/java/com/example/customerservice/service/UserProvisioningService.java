@@ -0,0 +1,187 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.model.request.RegisterRequest;
+import com.example.customerservice.model.response.BulkRegisterResponse;
+import com.example.customerservice.model.response.BulkRegisterResult;
+import com.example.customerservice.model.response.BulkRegisterResult.Status;
+import com.example.customerservice.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Creates many users at once. Each chunk of rows is checked against existing usernames with a single query,
+ * hashed in parallel on the {@link PasswordHashingExecutor} pool and written with JDBC batch inserts into
+ * {@code users} and {@code authorities} in one transaction. Rows that cannot be created are reported, not fatal.
+ */
+@Service
+public class UserProvisioningService {
+
+    // Column sizes of the users and authorities tables.
+    private static final int MAX_USERNAME_LENGTH = 50;
+    private static final int MAX_AUTHORITY_LENGTH = 50;
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final int chunkSize;
+    private final int maxBulkSize;
+    private final Map<Status, Counter> provisioned = new EnumMap<>(Status.class);
+
+    public UserProvisioningService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   PasswordEncoder passwordEncoder,
+                                   PasswordHashingExecutor passwordHashingExecutor,
+                                   @Value("${spring.app.userBulkChunkSize}") int chunkSize,
+                                   @Value("${spring.app.maxUserBulkSize}") int maxBulkSize,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.chunkSize = chunkSize;
+        this.maxBulkSize = maxBulkSize;
+        for (Status status : Status.values()) {
+            provisioned.put(status, Counter.builder("auth.users.provisioned")
+                    .description("Rows handled by bulk user registration, by result")
+                    .tag("result", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public BulkRegisterResponse registerUsers(List<RegisterRequest> users) {
+        if (users == null || users.isEmpty()) {
+            throw new IllegalArgumentException("No users supplied");
+        }
+        if (users.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " users can be registered per request");
+        }
+        BulkRegisterResult[] results = new BulkRegisterResult[users.size()];
+        Set<String> seen = new HashSet<>();
+        for (int from = 0; from < users.size(); from += chunkSize) {
+            List<Integer> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(from + chunkSize, users.size()); i++) {
+                RegisterRequest user = users.get(i);
+                String problem = validate(user);
+                if (problem != null) {
+                    results[i] = result(user, Status.INVALID, problem);
+                } else if (!seen.add(user.getUsername())) {
+                    results[i] = result(user, Status.EXISTS, "Duplicate username in request");
+                } else {
+                    rows.add(i);
+                }
+            }
+            createChunk(users, rows, results);
+        }
+        int created = 0;
+        for (BulkRegisterResult result : results) {
+            provisioned.get(result.getStatus()).increment();
+            if (result.getStatus() == Status.CREATED) {
+                created++;
+            }
+        }
+        return new BulkRegisterResponse(created, results.length - created, Arrays.asList(results));
+    }
+
+    private void createChunk(List<RegisterRequest> users, List<Integer> rows, BulkRegisterResult[] results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> existing = findExisting(rows.stream().map(i -> users.get(i).getUsername()).toList());
+        List<Integer> newRows = new ArrayList<>(rows.size());
+        for (int i : rows) {
+            if (existing.contains(users.get(i).getUsername())) {
+                results[i] = result(users.get(i), Status.EXISTS, "Username already exists");
+            } else {
+                newRows.add(i);
+            }
+        }
+        if (newRows.isEmpty()) {
+            return;
+        }
+        List<Callable<String>> hashes = newRows.stream()
+                .<Callable<String>>map(i -> () -> passwordEncoder.encode(users.get(i).getPassword()))
+                .toList();
+        List<String> encodedPasswords = passwordHashingExecutor.callAll(hashes);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(users, newRows, encodedPasswords));
+            newRows.forEach(i -> results[i] = result(users.get(i), Status.CREATED, null));
+        } catch (DuplicateKeyException e) {
+            // A concurrent registration took a name after the pre-check: retry row by row to find which.
+            for (int row = 0; row < newRows.size(); row++) {
+                int i = newRows.get(row);
+                List<String> encodedPassword = List.of(encodedPasswords.get(row));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(users, List.of(i), encodedPassword));
+                    results[i] = result(users.get(i), Status.CREATED, null);
+                } catch (DuplicateKeyException duplicate) {
+                    results[i] = result(users.get(i), Status.EXISTS, "Username already exists");
+                }
+            }
+        }
+    }
+
+    private Set<String> findExisting(List<String> usernames) {
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "select username from users where username in (:usernames)",
+                Map.of("usernames", usernames),
+                String.class));
+    }
+
+    private void insert(List<RegisterRequest> users, List<Integer> rows, List<String> encodedPasswords) {
+        List<Object[]> userRows = new ArrayList<>(rows.size());
+        List<Object[]> authorityRows = new ArrayList<>(rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            RegisterRequest user = users.get(rows.get(row));
+            userRows.add(new Object[]{user.getUsername(), encodedPasswords.get(row)});
+            authorityRows.add(new Object[]{user.getUsername(), ROLE_PREFIX + user.getRole()});
+        }
+        jdbcTemplate.batchUpdate("insert into users (username, password, enabled) values (?, ?, true)", userRows);
+        jdbcTemplate.batchUpdate("insert into authorities (username, authority) values (?, ?)", authorityRows);
+    }
+
+    /**
+     * Same rules as single registration, plus the column limits that would otherwise fail the whole batch.
+     */
+    private static String validate(RegisterRequest user) {
+        if (user == null) {
+            return "Missing fields";
+        }
+        if (isBlank(user.getUsername()) || isBlank(user.getPassword()) || isBlank(user.getRole())) {
+            return "Missing fields";
+        }
+        if (user.getUsername().length() > MAX_USERNAME_LENGTH) {
+            return "Username is longer than " + MAX_USERNAME_LENGTH + " characters";
+        }
+        if (user.getRole().startsWith(ROLE_PREFIX)) {
+            return "Role must not start with " + ROLE_PREFIX;
+        }
+        if (ROLE_PREFIX.length() + user.getRole().length() > MAX_AUTHORITY_LENGTH) {
+            return "Role is too long";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static BulkRegisterResult result(RegisterRequest user, Status status, String message) {
+        return new BulkRegisterResult(user == null ? null : user.getUsername(), status, message);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.customerservice.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing map from a 64-bit hash of a customer's normalized email and phone ({@link #key}) to the
+ * customer's id, held in two primitive arrays: a few dozen bytes per customer rather than several boxed objects.
+ * Lookups take no lock: an entry's id is written before its key becomes visible and a resize publishes a complete
+ * new table. Writes are serialized. Different contacts can share a hash, so a hit means "probably this customer"
+ * and callers confirm it.
+ */
+public class ContactKeyIndex {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        // 0 marks a removed entry; customer ids start at 1.
+        final AtomicLongArray ids;
+        final int mask;
+        // Slots holding a key, removed entries included; drives resizing.
+        int used;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            ids = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table;
+    private volatile int size;
+
+    public ContactKeyIndex(int expectedEntries) {
+        this.table = new Table(capacityFor(expectedEntries));
+    }
+
+    /**
+     * Hash of a normalized email and phone, or 0 (no key) when either is missing.
+     */
+    public static long key(String normalizedEmail, String normalizedPhone) {
+        if (normalizedEmail == null || normalizedPhone == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, normalizedEmail);
+        // Separator, so ("ab", "1") and ("a", "b1") hash differently.
+        hash = (hash ^ 0xffff) * 0x100000001b3L;
+        hash = fnv(hash, normalizedPhone);
+        hash = mix(hash);
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * The id stored for {@code key}, or 0 if none.
+     */
+    public long get(long key) {
+        Table current = table;
+        for (int slot = (int) key & current.mask; ; slot = (slot + 1) & current.mask) {
+            long stored = current.keys.get(slot);
+            if (stored == 0) {
+                return 0;
+            }
+            if (stored == key) {
+                return current.ids.get(slot);
+            }
+        }
+    }
+
+    public synchronized void put(long key, long id) {
+        if (key == 0 || id <= 0) {
+            return;
+        }
+        Table current = table;
+        int slot = slotFor(current, key);
+        if (current.keys.get(slot) == key) {
+            if (current.ids.getAndSet(slot, id) == 0) {
+                size++;
+            }
+            return;
+        }
+        if ((current.used + 1) * 4L > current.keys.length() * 3L) {
+            current = resize(current);
+            slot = slotFor(current, key);
+        }
+        current.ids.set(slot, id);
+        current.keys.set(slot, key);
+        current.used++;
+        size++;
+    }
+
+    /**
+     * Removes {@code key} if it still maps to {@code id}; a newer owner of the same key is left alone.
+     */
+    public synchronized boolean remove(long key, long id) {
+        if (key == 0) {
+            return false;
+        }
+        Table current = table;
+        int slot = slotFor(current, key);
+        if (current.keys.get(slot) == key && current.ids.compareAndSet(slot, id, 0)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The slot holding {@code key}, or the empty slot where it would go.
+     */
+    private static int slotFor(Table table, long key) {
+        int slot = (int) key & table.mask;
+        while (true) {
+            long stored = table.keys.get(slot);
+            if (stored == 0 || stored == key) {
+                return slot;
+            }
+            slot = (slot + 1) & table.mask;
+        }
+    }
+
+    private Table resize(Table old) {
+        Table resized = new Table(capacityFor(size + 1));
+        for (int i = 0; i < old.keys.length(); i++) {
+            long id = old.ids.get(i);
+            if (id != 0) {
+                int slot = slotFor(resized, old.keys.get(i));
+                resized.ids.set(slot, id);
+                resized.keys.set(slot, old.keys.get(i));
+                resized.used++;
+            }
+        }
+        table = resized;
+        return resized;
+    }
+
+    /**
+     * Smallest power of two holding {@code entries} at a load factor of at most 1/2; tables grow at 3/4.
+     */
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long fnv(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
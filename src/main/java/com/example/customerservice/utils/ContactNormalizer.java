@@ -0,0 +1,58 @@
+package com.example.customerservice.utils;
+
+import java.util.Locale;
+
+/**
+ * Canonical forms used for the indexed search columns, so the same rules apply when a row is written and when
+ * it is searched for.
+ */
+public final class ContactNormalizer {
+
+    private ContactNormalizer() {
+    }
+
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    public static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.isEmpty() ? null : digits.toString();
+    }
+
+    /**
+     * Lowercased {@code "firstname lastname"}, the column name-prefix search runs against.
+     */
+    public static String name(String firstname, String lastname) {
+        String name = (nullToEmpty(firstname).trim() + " " + nullToEmpty(lastname).trim()).trim();
+        return name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalizes a name-prefix search term the same way as {@link #name}, collapsing inner whitespace.
+     */
+    public static String namePrefix(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        String normalized = prefix.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -1,32 +1,106 @@
 package com.example.customerservice.utils;
 
+import com.example.customerservice.security.JwtKeyRing;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    // Any client can send bad tokens; cap the log lines they cost.
+    private static final RateLimitedLogger expiredTokenLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(10));
+    private static final RateLimitedLogger invalidTokenLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(10));
+
+    static final String TOKEN_TYPE_CLAIM = "type";
+    static final String ACCESS_TOKEN = "access";
+    static final String REFRESH_TOKEN = "refresh";
 
-    private final String jwtSecret;
     private final int jwtExpirationMs;
+    private final long jwtRefreshExpirationMs;
+    private final JwtKeyRing keyRing;
+    // Built once, not per request; verification keys are looked up by the token's kid header.
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
+    private final TokenRevocationList revokedTokens;
+
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+    private final Counter validTokens;
+    private final Counter missingTokens;
+    private final Counter expiredTokens;
+    private final Counter invalidTokens;
+    private final Counter revokedTokenUses;
 
-    public JwtUtils(String jwtSecret, @Value("${spring.app.jwtExpirationMs}") int jwtExpirationMs) {
-        this.jwtSecret = jwtSecret;
+    public JwtUtils(JwtKeyRing keyRing,
+                    @Value("${spring.app.jwtExpirationMs}") int jwtExpirationMs,
+                    @Value("${spring.app.jwtRefreshExpirationMs}") long jwtRefreshExpirationMs,
+                    @Value("${spring.app.jwtCacheSize}") int jwtCacheSize,
+                    @Value("${spring.app.jwtRevocationCapacity}") int jwtRevocationCapacity,
+                    @Value("${spring.app.jwtRevocationMaxEntries}") int jwtRevocationMaxEntries,
+                    MeterRegistry meterRegistry) {
         this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtRefreshExpirationMs = jwtRefreshExpirationMs;
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(jwtCacheSize);
+        this.revokedTokens = new TokenRevocationList(jwtRevocationCapacity, jwtRevocationMaxEntries);
+
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Time to build and sign a token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // Only cache misses are timed: a hit does no cryptography.
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("Time to parse and verify the signature of a token not yet in the verified cache")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.validTokens = tokenOutcome(meterRegistry, "valid");
+        this.missingTokens = tokenOutcome(meterRegistry, "missing");
+        this.expiredTokens = tokenOutcome(meterRegistry, "expired");
+        this.invalidTokens = tokenOutcome(meterRegistry, "invalid");
+        this.revokedTokenUses = tokenOutcome(meterRegistry, "revoked");
+        Gauge.builder("jwt.revoked", revokedTokens, TokenRevocationList::size)
+                .description("Revoked token ids kept until their tokens expire")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revoked.max", revokedTokens, TokenRevocationList::maxEntries)
+                .description("Revoked token ids that can be kept; refresh and logout answer 503 once jwt.revoked reaches it")
+                .register(meterRegistry);
+    }
+
+    private static Counter tokenOutcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("jwt.validations")
+                .description("Bearer token checks made while authenticating requests, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     public String getJwtFromHeader(HttpServletRequest request) {
@@ -37,47 +111,150 @@ public class JwtUtils {
         return null;
     }
 
+    /**
+     * Short-lived access token accepted by {@link #getValidatedClaims}. Carries the roles and a unique {@code jti}
+     * so it can be revoked.
+     */
     public String generateTokenFromUsername(UserDetails userDetails) {
         String username = userDetails.getUsername();
-        return Jwts.builder()
+        return signTimer.record(() -> sign(Jwts.builder()
                 .claims(generateClaims(userDetails))
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key())
+                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))));
+    }
+
+    /**
+     * Long-lived token accepted only by {@link #getValidatedRefreshClaims}. It carries no roles: they are read
+     * from the user store again when it is exchanged.
+     */
+    public String generateRefreshToken(UserDetails userDetails) {
+        return signTimer.record(() -> sign(Jwts.builder()
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN)
+                .id(UUID.randomUUID().toString())
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date())
+                .expiration(new Date((new Date()).getTime() + jwtRefreshExpirationMs))));
+    }
+
+    private String sign(JwtBuilder builder) {
+        JwtKeyRing.RingKey signingKey = keyRing.signingKey();
+        return builder.header().keyId(signingKey.kid()).and()
+                .signWith(signingKey.privateKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
     private Map<String, Object> generateClaims(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
         claims.put("username", userDetails.getUsername());
-        claims.put("roles", userDetails.getAuthorities());
+        claims.put("roles", userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return claims;
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build().parseSignedClaims(token)
-                .getPayload().getSubject();
+    /**
+     * Rebuilds the authorities signed into the {@code roles} claim by {@link #generateTokenFromUsername}.
+     */
+    public List<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public String getUserNameFromJwtToken(String token) {
+        return parseVerifiedClaims(token).getSubject();
     }
 
-    public boolean isValid(String authToken) {
+    /**
+     * Parses and verifies an access token in a single pass. Returns empty (after logging why) when the token is
+     * missing, malformed, badly signed, expired, not an access token or revoked.
+     */
+    public Optional<Claims> getValidatedClaims(String authToken) {
         if (Strings.isEmpty(authToken)) {
-            return false;
+            missingTokens.increment();
+            return Optional.empty();
         }
         try {
-            Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            Claims claims = parseVerifiedClaims(authToken);
+            if (!ACCESS_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM))) {
+                invalidTokens.increment();
+                invalidTokenLog.error("Invalid JWT token: not an access token");
+                return Optional.empty();
+            }
+            if (isRevoked(claims)) {
+                revokedTokenUses.increment();
+                return Optional.empty();
+            }
+            validTokens.increment();
+            return Optional.of(claims);
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            expiredTokens.increment();
+            expiredTokenLog.error("JWT token is expired: {}", e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokens.increment();
+            invalidTokenLog.error("Invalid JWT token: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Verifies a refresh token; empty unless it is a valid, unexpired, unrevoked refresh token. Refresh tokens
+     * bypass the verified-token cache, which is meant for access tokens repeated on every request.
+     */
+    public Optional<Claims> getValidatedRefreshClaims(String refreshToken) {
+        if (Strings.isEmpty(refreshToken)) {
+            return Optional.empty();
         }
-        return false;
+        try {
+            Claims claims = verifyTimer.record(() -> parser.parseSignedClaims(refreshToken).getPayload());
+            if (!REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM)) || isRevoked(claims)) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokenLog.error("Invalid refresh token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Revokes the token described by {@code claims} until it expires. Returns false if it was already revoked.
+     */
+    public boolean revoke(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        return revokedTokens.revoke(claims.getId(), claims.getExpiration().getTime());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.jwtRevocationPruneMs}")
+    public void pruneRevokedTokens() {
+        revokedTokens.prune();
+    }
+
+    private boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        return jti != null && revokedTokens.isRevoked(jti);
+    }
+
+    public boolean isValid(String authToken) {
+        return getValidatedClaims(authToken).isPresent();
+    }
+
+    private Claims parseVerifiedClaims(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = verifyTimer.record(() -> parser.parseSignedClaims(token).getPayload());
+        verifiedTokens.put(token, claims);
+        return claims;
     }
 }
@@ -0,0 +1,83 @@
+package com.example.customerservice.utils;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Wraps a logger for call sites that clients can trigger at will (bad tokens, unauthenticated requests). At most
+ * {@code maxPerWindow} messages are written per window; the rest are counted and reported once in the next window
+ * that logs, so a flood of bad requests costs a counter increment instead of a log line each.
+ */
+public class RateLimitedLogger {
+
+    private final Logger delegate;
+    private final int maxPerWindow;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    private long windowStart;
+    private int logged;
+    private long suppressed;
+
+    public RateLimitedLogger(Logger delegate, int maxPerWindow, Duration window) {
+        this(delegate, maxPerWindow, window, System::nanoTime);
+    }
+
+    RateLimitedLogger(Logger delegate, int maxPerWindow, Duration window, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.maxPerWindow = maxPerWindow;
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    public void error(String format, Object... args) {
+        if (!delegate.isErrorEnabled()) {
+            return;
+        }
+        long dropped = acquire();
+        if (dropped < 0) {
+            return;
+        }
+        if (dropped > 0) {
+            delegate.error("Suppressed {} similar messages", dropped);
+        }
+        delegate.error(format, args);
+    }
+
+    public void warn(String format, Object... args) {
+        if (!delegate.isWarnEnabled()) {
+            return;
+        }
+        long dropped = acquire();
+        if (dropped < 0) {
+            return;
+        }
+        if (dropped > 0) {
+            delegate.warn("Suppressed {} similar messages", dropped);
+        }
+        delegate.warn(format, args);
+    }
+
+    /**
+     * Returns -1 when the message must be dropped, otherwise the number of messages dropped since the last one
+     * that was written.
+     */
+    private synchronized long acquire() {
+        long now = nanoClock.getAsLong();
+        if (now - windowStart >= windowNanos) {
+            windowStart = now;
+            logged = 0;
+        }
+        if (logged >= maxPerWindow) {
+            suppressed++;
+            return -1;
+        }
+        logged++;
+        long dropped = suppressed;
+        suppressed = 0;
+        return dropped;
+    }
+}
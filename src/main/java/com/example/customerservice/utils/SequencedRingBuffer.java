@@ -0,0 +1,98 @@
+package com.example.customerservice.utils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent values, each tagged with a sequence number that increases by one per value
+ * and starts at 1. Publishing never blocks and takes no lock: a writer claims the next sequence with one atomic
+ * increment and stores into its slot with a compare-and-set that never replaces a newer sequence, so a writer that
+ * stalls for a whole lap drops its value instead of overwriting a later one. Readers keep their own position and
+ * detect from the slot's sequence whether the value they want is not published yet or has been lost; a value
+ * still missing once the head is {@code capacity / 2} past it counts as lost, so a stalled writer cannot hold
+ * readers back indefinitely.
+ */
+public class SequencedRingBuffer<T> {
+
+    private record Slot<T>(long sequence, T value) {
+    }
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final int mask;
+    private final long grace;
+    private final AtomicLong claimed = new AtomicLong();
+
+    public SequencedRingBuffer(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minCapacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.grace = capacity / 2;
+    }
+
+    /**
+     * Stores {@code value} under the next sequence number and returns that number.
+     */
+    public long publish(T value) {
+        return store(claim(), value);
+    }
+
+    long claim() {
+        return claimed.incrementAndGet();
+    }
+
+    /**
+     * Stores {@code value} for an already claimed {@code sequence} unless its slot has moved on to a later lap.
+     */
+    long store(long sequence, T value) {
+        Slot<T> slot = new Slot<>(sequence, value);
+        int index = (int) sequence & mask;
+        Slot<T> current;
+        do {
+            current = slots.get(index);
+            if (current != null && current.sequence() > sequence) {
+                // Lapped while stalled; readers that wanted this value see the newer one and report the loss.
+                return sequence;
+            }
+        } while (!slots.compareAndSet(index, current, slot));
+        return sequence;
+    }
+
+    /**
+     * The latest sequence number handed out, or 0 if nothing has been published. Its value may still be in the
+     * middle of being stored.
+     */
+    public long head() {
+        return claimed.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Appends up to {@code max} consecutive values starting at sequence {@code from} to {@code out}, stopping at
+     * the first one not yet published. Returns how many were appended, or -1 if the value at {@code from} has
+     * been overwritten or its writer is too far behind, and the caller has lost values.
+     */
+    public int read(long from, int max, List<? super T> out) {
+        int read = 0;
+        for (long sequence = from; read < max; sequence++) {
+            Slot<T> slot = slots.get((int) sequence & mask);
+            if (slot == null || slot.sequence() < sequence) {
+                if (read == 0 && claimed.get() - sequence >= grace) {
+                    // Claimed long ago and still not stored: treat its writer as stalled.
+                    return -1;
+                }
+                break;
+            }
+            if (slot.sequence() > sequence) {
+                // Overwritten; report what was read so far and the loss on the next call.
+                return read > 0 ? read : -1;
+            }
+            out.add(slot.value());
+            read++;
+        }
+        return read;
+    }
+}
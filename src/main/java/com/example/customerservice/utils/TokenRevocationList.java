@@ -0,0 +1,140 @@
+package com.example.customerservice.utils;
+
+import com.example.customerservice.exception.ServiceBusyException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids ({@code jti}) kept until the token would have expired anyway. Lookups are on the request
+ * hot path: a Bloom filter answers "never revoked" for almost every live token with a few hash probes and no
+ * locking, and only probable hits are confirmed against the exact map. Revocations and {@link #prune()} are rare
+ * and serialized; pruning drops expired ids and rebuilds the filter from those that remain.
+ * <p>
+ * At most {@code maxEntries} ids are held. Every refresh revokes one id for the refresh token's lifetime, so
+ * without a cap a client refreshing in a loop could grow the heap for a whole day. Once full, revoking fails
+ * closed with {@link ServiceBusyException}: no single-use token is exchanged unless its id can be recorded.
+ */
+public class TokenRevocationList {
+
+    private final int expectedEntries;
+    private final int maxEntries;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(int expectedEntries, int maxEntries) {
+        this.expectedEntries = Math.max(1, expectedEntries);
+        this.maxEntries = maxEntries;
+        this.filter = new BloomFilter(this.expectedEntries);
+    }
+
+    /**
+     * Revokes {@code jti} until {@code expiresAtMillis}. Returns false if it was already revoked, so a caller
+     * can make single-use tokens race-free. Throws {@link ServiceBusyException} when {@code maxEntries} ids are
+     * already held; expired ones are only dropped by {@link #prune()}.
+     */
+    public synchronized boolean revoke(String jti, long expiresAtMillis) {
+        if (revoked.containsKey(jti)) {
+            return false;
+        }
+        if (revoked.size() >= maxEntries) {
+            throw new ServiceBusyException("Too many revoked tokens, please retry later");
+        }
+        revoked.put(jti, expiresAtMillis);
+        filter.add(jti);
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Forgets ids whose tokens have expired; the signature check rejects those tokens by itself. The filter is
+     * rebuilt, sized for the larger of the expected and the current number of entries, so false positives do not
+     * accumulate.
+     */
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * About 10 bits per expected entry and 7 probes, roughly a 1% false-positive rate at capacity. Probe
+     * positions come from double hashing a 64-bit FNV-1a hash of the id's characters.
+     */
+    private static final class BloomFilter {
+
+        private static final int BITS_PER_ENTRY = 10;
+        private static final int PROBES = 7;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+
+        BloomFilter(int expectedEntries) {
+            long bits = Math.max(64, (long) expectedEntries * BITS_PER_ENTRY);
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < PROBES; i++) {
+                long bit = Math.floorMod(hash + i * step, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < PROBES; i++) {
+                long bit = Math.floorMod(hash + i * step, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.customerservice.web;
+
+import com.example.customerservice.logging.SampledRequestTurboFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Marks roughly one request in {@code spring.app.logSampleRate} for debug logging; see
+ * {@link SampledRequestTurboFilter}. The decision is made once per request so a sampled request's log lines are
+ * complete rather than a random subset. A rate of 0 disables sampling.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LogSamplingFilter extends OncePerRequestFilter {
+
+    private final int sampleRate;
+
+    public LogSamplingFilter(@Value("${spring.app.logSampleRate}") int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return sampleRate <= 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(SampledRequestTurboFilter.MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(SampledRequestTurboFilter.MDC_KEY);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.customerservice.configuration;
 
 import com.example.customerservice.security.AuthTokenFilter;
+import com.example.customerservice.security.JwtKeyRing;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,8 +17,15 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,8 +33,15 @@ import static org.mockito.Mockito.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 class SecurityConfigTest {
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
     private SecurityConfig securityConfig;
 
     @MockitoBean
@@ -56,10 +73,12 @@ class SecurityConfigTest {
     }
 
     @Test
-    void jwtSecretReturnsBase64EncodedKey() {
-        String secret = securityConfig.jwtSecret();
-        assertNotNull(secret, "JWT Secret should not be null");
-        assertEquals(44, secret.length(), "JWT Secret should be a Base64-encoded 32-byte key");
+    void passwordEncoderRequestsRehashWhenCostDiffers() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder();
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("test123")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("test123")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(12).encode("test123")));
     }
 
     @Test
@@ -79,10 +98,33 @@ class SecurityConfigTest {
     }
 
     @Test
-    void testJwtSecret() {
-        String secret = securityConfig.jwtSecret();
-        assertNotNull(secret, "JWT Secret should not be null");
-        assertEquals(44, secret.length(), "JWT Secret should be a Base64-encoded 32-byte key");
+    void prometheusEndpointIsPublicAndExposesHotPathMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(metrics)
+                .contains("http_server_requests_seconds")
+                .contains("jwt_sign_seconds")
+                .contains("jwt_validations_total")
+                .contains("auth_password_verify_seconds")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_sessions_open_total")
+                .contains("cache_gets_total{cache=\"customers\"");
+    }
+
+    @Test
+    void jwksEndpointIsPublicAndListsTheSigningKey() throws Exception {
+        String jwks = mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(jwks)
+                .contains("\"kid\":\"" + jwtKeyRing.signingKey().kid() + "\"")
+                .contains("\"alg\":\"ES256\"")
+                .doesNotContain("\"d\"");
     }
 
     @Test
@@ -96,4 +138,24 @@ class SecurityConfigTest {
 
         verify(authenticationConfiguration, times(1)).getAuthenticationManager();
     }
+
+    @Test
+    void corsPreflightAllowsPatchAndConditionalRequestHeaders() throws Exception {
+        mockMvc.perform(options("/api/v1/customer/1")
+                        .header("Origin", "http://localhost:4200")
+                        .header("Access-Control-Request-Method", "PATCH")
+                        .header("Access-Control-Request-Headers", "authorization,if-none-match,last-event-id"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Methods", containsString("PATCH")))
+                .andExpect(header().string("Access-Control-Allow-Headers", containsStringIgnoringCase("If-None-Match")))
+                .andExpect(header().string("Access-Control-Allow-Headers", containsStringIgnoringCase("Last-Event-ID")));
+    }
+
+    @Test
+    void corsExposesCachingAndRetryHeaders() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json").header("Origin", "http://localhost:4200"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Expose-Headers",
+                        "ETag, Last-Modified, Location, Retry-After"));
+    }
 }
@@ -1,20 +1,33 @@
 package com.example.customerservice.controller;
 
+import com.example.customerservice.exception.TooManyRequestsException;
+import com.example.customerservice.model.request.BulkRegisterRequest;
 import com.example.customerservice.model.request.LoginRequest;
+import com.example.customerservice.model.request.RefreshTokenRequest;
 import com.example.customerservice.model.request.RegisterRequest;
+import com.example.customerservice.model.response.BulkRegisterResponse;
+import com.example.customerservice.model.response.BulkRegisterResult;
 import com.example.customerservice.model.response.LoginResponse;
 import com.example.customerservice.model.response.RegisterResponse;
+import com.example.customerservice.security.LoginRateLimiter;
 import com.example.customerservice.service.AuthenticationService;
+import com.example.customerservice.service.UserProvisioningService;
+import com.example.customerservice.utils.JwtUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class AuthenticationControllerTest {
@@ -22,6 +35,15 @@ class AuthenticationControllerTest {
     @Mock
     private AuthenticationService authenticationService;
 
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private UserProvisioningService userProvisioningService;
+
     @InjectMocks
     private AuthenticationController authenticationController;
 
@@ -42,16 +64,69 @@ class AuthenticationControllerTest {
         assertEquals(registerResponse, response.getBody());
     }
 
+    @Test
+    void registerUsersReturnsPerRowResults() {
+        List<RegisterRequest> users = List.of(new RegisterRequest("username", "password", "USER"));
+        BulkRegisterResponse bulkResponse = new BulkRegisterResponse(1, 0,
+                List.of(new BulkRegisterResult("username", BulkRegisterResult.Status.CREATED, null)));
+        when(userProvisioningService.registerUsers(users)).thenReturn(bulkResponse);
+
+        ResponseEntity<BulkRegisterResponse> response = authenticationController.registerUsers(new BulkRegisterRequest(users));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(bulkResponse, response.getBody());
+    }
+
     @Test
     void authenticateUserReturnsTokenSuccessfully() {
         LoginRequest loginRequest = new LoginRequest("username", "password");
         LoginResponse loginResponse = new LoginResponse("username", List.of("USER"), "token");
         when(authenticationService.authenticateUser(loginRequest)).thenReturn(loginResponse);
 
-        ResponseEntity<LoginResponse> response = authenticationController.authenticateUser(loginRequest);
+        ResponseEntity<LoginResponse> response = authenticationController.authenticateUser(loginRequest, clientRequest());
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(loginResponse, response.getBody());
+        verify(loginRateLimiter).checkLogin("username", "10.0.0.1");
+    }
+
+    @Test
+    void authenticateUserRejectedByRateLimiterSkipsAuthentication() {
+        LoginRequest loginRequest = new LoginRequest("username", "password");
+        doThrow(new TooManyRequestsException("Too many login attempts", 5))
+                .when(loginRateLimiter).checkLogin("username", "10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> authenticationController.authenticateUser(loginRequest, clientRequest()));
+        verifyNoInteractions(authenticationService);
+    }
+
+    @Test
+    void refreshTokenReturnsNewTokens() {
+        LoginResponse loginResponse = new LoginResponse("username", List.of("USER"), "access", "refresh2");
+        when(authenticationService.refreshToken("refresh1")).thenReturn(loginResponse);
+
+        ResponseEntity<LoginResponse> response = authenticationController.refreshToken(new RefreshTokenRequest("refresh1"));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(loginResponse, response.getBody());
+    }
+
+    @Test
+    void logoutRevokesBearerAndRefreshTokens() {
+        MockHttpServletRequest request = clientRequest();
+        when(jwtUtils.getJwtFromHeader(request)).thenReturn("access");
+
+        ResponseEntity<Void> response = authenticationController.logout(new RefreshTokenRequest("refresh"), request);
+
+        assertEquals(204, response.getStatusCode().value());
+        verify(authenticationService).logout("access", "refresh");
+    }
+
+    private MockHttpServletRequest clientRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
     }
 
 }
\ No newline at end of file
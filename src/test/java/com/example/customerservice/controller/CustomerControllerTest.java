@@ -1,20 +1,60 @@
 package com.example.customerservice.controller;
 
+import com.example.customerservice.exception.CustomerNotFoundException;
+import com.example.customerservice.exception.DuplicateCustomerException;
+import com.example.customerservice.exception.ServiceBusyException;
+import com.example.customerservice.model.request.BulkCustomerRequest;
+import com.example.customerservice.model.request.BulkDeleteRequest;
+import com.example.customerservice.model.request.CustomerPatchRequest;
 import com.example.customerservice.model.request.CustomerRequest;
+import com.example.customerservice.model.response.BulkCreateResponse;
+import com.example.customerservice.model.response.BulkDeleteResponse;
+import com.example.customerservice.model.response.CacheStatsResponse;
+import com.example.customerservice.model.response.CustomerPageResponse;
 import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.model.response.ImportJobResponse;
+import com.example.customerservice.repository.CustomerTableVersion;
+import com.example.customerservice.service.CustomerChangeFeed;
+import com.example.customerservice.service.CustomerImportService;
 import com.example.customerservice.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class CustomerControllerTest {
@@ -22,42 +62,245 @@ public class CustomerControllerTest {
     @Mock
     private CustomerService customerService;
 
+    @Mock
+    private CustomerImportService customerImportService;
+
+    @Mock
+    private CustomerChangeFeed customerChangeFeed;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private CustomerController customerController;
 
     CustomerResponse customerResponse;
 
+    LocalDateTime updateDate = LocalDateTime.of(2025, 2, 1, 10, 30, 15, 123456000);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         customerResponse = new CustomerResponse(1L, "firstname", "lastname", "0854444444", "email@mail.com");
         when(customerService.getCustomerById(1L)).thenReturn(Optional.of(customerResponse));
+        when(customerService.getCustomersVersion()).thenReturn(new CustomerTableVersion(1L, updateDate));
+    }
+
+    private ServletWebRequest getRequest() {
+        return getRequest(new MockHttpServletRequest("GET", "/api/v1/customer"), new MockHttpServletResponse());
+    }
+
+    private ServletWebRequest getRequest(MockHttpServletRequest request, MockHttpServletResponse response) {
+        return new ServletWebRequest(request, response);
+    }
+
+    private CustomerResponse[] readArray(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return objectMapper.readValue(out.toByteArray(), CustomerResponse[].class);
     }
 
     @Test
-    void getAllCustomersReturnsListOfCustomers() {
+    void getAllCustomersReturnsListOfCustomers() throws IOException {
         List<CustomerResponse> customers = List.of(customerResponse);
         when(customerService.getAllCustomers()).thenReturn(customers);
 
-        ResponseEntity<List<CustomerResponse>> response = customerController.getAllCustomers();
+        ResponseEntity<StreamingResponseBody> response = customerController.getAllCustomers(getRequest());
 
         assertEquals(200, response.getStatusCode().value());
-        assertEquals(customers, response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(new CustomerResponse[]{customerResponse}, readArray(response));
+    }
+
+    @Test
+    void getAllCustomersAnswers304WhenTableUnchanged() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        customerController.getAllCustomers(getRequest(new MockHttpServletRequest("GET", "/api/v1/customer"), first));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/v1/customer");
+        conditional.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        ResponseEntity<StreamingResponseBody> response = customerController.getAllCustomers(
+                getRequest(conditional, second));
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        verify(customerService, times(1)).getAllCustomers();
+    }
+
+    @Test
+    void getCustomerPageReturnsPage() {
+        CustomerPageResponse page = new CustomerPageResponse(List.of(customerResponse), "MQ");
+        when(customerService.getCustomerPage(null, 10)).thenReturn(page);
+
+        ResponseEntity<CustomerPageResponse> response = customerController.getCustomerPage(null, 10, getRequest());
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void searchCustomersReturnsPage() {
+        CustomerPageResponse page = new CustomerPageResponse(List.of(customerResponse), null);
+        when(customerService.searchCustomers("a@mail.com", null, null, null, 10)).thenReturn(page);
+
+        ResponseEntity<CustomerPageResponse> response = customerController.searchCustomers("a@mail.com", null, null, null, 10);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportCustomersWritesOneJsonObjectPerLine() throws IOException {
+        CustomerResponse second = new CustomerResponse(2L, "second", "lastname", "0855555555", "second@mail.com");
+        doAnswer(invocation -> {
+            Consumer<CustomerResponse> sink = invocation.getArgument(0);
+            sink.accept(customerResponse);
+            sink.accept(second);
+            return null;
+        }).when(customerService).exportCustomers(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = customerController.exportCustomers();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, lines.length);
+        assertEquals(customerResponse, objectMapper.readValue(lines[0], CustomerResponse.class));
+        assertEquals(second, objectMapper.readValue(lines[1], CustomerResponse.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllCustomersStreamsJsonArrayWhenEnabled() throws IOException {
+        ReflectionTestUtils.setField(customerController, "streamGetAll", true);
+        ReflectionTestUtils.setField(customerController, "projectionGetAll", true);
+        CustomerResponse second = new CustomerResponse(2L, "second", "lastname", "0855555555", "second@mail.com");
+        doAnswer(invocation -> {
+            Consumer<CustomerResponse> sink = invocation.getArgument(0);
+            sink.accept(customerResponse);
+            sink.accept(second);
+            return null;
+        }).when(customerService).streamCustomersProjected(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = customerController.getAllCustomers(getRequest());
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(new CustomerResponse[]{customerResponse, second}, readArray(response));
+        verify(customerService, never()).getAllCustomersProjected();
+    }
+
+    @Test
+    void getAllCustomersStreamsEmptyArrayForEmptyTable() throws IOException {
+        ReflectionTestUtils.setField(customerController, "streamGetAll", true);
+
+        ResponseEntity<StreamingResponseBody> response = customerController.getAllCustomers(getRequest());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
     }
 
     @Test
     void getCustomerByIdReturnsCustomer() {
-        ResponseEntity<CustomerResponse> response = customerController.getCustomerById(1L);
+        ResponseEntity<CustomerResponse> response = customerController.getCustomerById(1L, getRequest());
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(customerResponse, response.getBody());
     }
 
+    @Test
+    void getCustomerByIdUsesProjectionWhenEnabled() {
+        ReflectionTestUtils.setField(customerController, "projectionGetById", true);
+        when(customerService.getCustomerByIdProjected(1L)).thenReturn(Optional.of(customerResponse));
+
+        ResponseEntity<CustomerResponse> response = customerController.getCustomerById(1L, getRequest());
+
+        assertEquals(customerResponse, response.getBody());
+        verify(customerService, never()).getCustomerById(1L);
+    }
+
+    @Test
+    void getAllCustomersUsesProjectionWhenEnabled() throws IOException {
+        ReflectionTestUtils.setField(customerController, "projectionGetAll", true);
+        when(customerService.getAllCustomersProjected()).thenReturn(List.of(customerResponse));
+
+        ResponseEntity<StreamingResponseBody> response = customerController.getAllCustomers(getRequest());
+
+        assertArrayEquals(new CustomerResponse[]{customerResponse}, readArray(response));
+        verify(customerService, never()).getAllCustomers();
+    }
+
+    @Test
+    void getCacheStatsReturnsStats() {
+        CacheStatsResponse stats = new CacheStatsResponse(1, 9, 1, 0.9, 0);
+        when(customerService.getCacheStats()).thenReturn(stats);
+
+        ResponseEntity<CacheStatsResponse> response = customerController.getCacheStats();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void getCustomerByIdSetsValidatorsAndAnswers304FromVersionOnly() {
+        when(customerService.getCustomerVersion(1L)).thenReturn(Optional.of(updateDate));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+
+        ResponseEntity<CustomerResponse> response = customerController.getCustomerById(1L,
+                getRequest(new MockHttpServletRequest("GET", "/api/v1/customer/1"), first));
+
+        assertEquals(200, response.getStatusCode().value());
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+        assertNotNull(first.getHeader("Last-Modified"));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/v1/customer/1");
+        conditional.addHeader("If-None-Match", etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        assertEquals(304, customerController.getCustomerById(1L, getRequest(conditional, second)).getStatusCode().value());
+        assertEquals(304, second.getStatus());
+        verify(customerService, times(1)).getCustomerById(1L);
+    }
+
+    @Test
+    void getCustomerPageReturns304WhenTableUnchangedAndBodyWhenChanged() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        customerController.getCustomerPage(null, 10,
+                getRequest(new MockHttpServletRequest("GET", "/api/v1/customer/page"), first));
+        String etag = first.getHeader("ETag");
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/v1/customer/page");
+        conditional.addHeader("If-None-Match", etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertEquals(304, customerController.getCustomerPage(null, 10, getRequest(conditional, second)).getStatusCode().value());
+        assertEquals(304, second.getStatus());
+
+        when(customerService.getCustomersVersion()).thenReturn(new CustomerTableVersion(2L, updateDate.plusSeconds(1)));
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        customerController.getCustomerPage(null, 10, getRequest(conditional, third));
+        assertEquals(200, third.getStatus());
+        assertNotEquals(etag, third.getHeader("ETag"));
+    }
+
+    @Test
+    void patchCustomerReturnsNoContent() {
+        CustomerPatchRequest patch = new CustomerPatchRequest(null, null, "0811111111", null);
+
+        ResponseEntity<Void> response = customerController.patchCustomer(1L, patch);
+
+        assertEquals(204, response.getStatusCode().value());
+        verify(customerService).patchCustomer(1L, patch);
+    }
+
     @Test
     void getCustomerByIdReturnsNotFound() {
         when(customerService.getCustomerById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<CustomerResponse> response = customerController.getCustomerById(1L);
+        ResponseEntity<CustomerResponse> response = customerController.getCustomerById(1L, getRequest());
 
         assertEquals(404, response.getStatusCode().value());
     }
@@ -74,15 +317,37 @@ public class CustomerControllerTest {
     }
 
     @Test
-    void createCustomerReturnsBadRequestOnException() {
+    void createCustomerReturnsBadRequestOnConstraintViolation() {
         CustomerRequest customerRequest = new CustomerRequest(1L, "firstname", "lastname", "0854444444", "email@mail.com");
-        doThrow(new RuntimeException()).when(customerService).createCustomer(customerRequest);
+        doThrow(new DataIntegrityViolationException("NULL not allowed")).when(customerService).createCustomer(customerRequest);
 
         ResponseEntity<CustomerResponse> response = customerController.createCustomer(customerRequest);
 
         assertEquals(400, response.getStatusCode().value());
     }
 
+    @Test
+    void createCustomerLeavesOtherFailuresToTheExceptionHandler() {
+        CustomerRequest customerRequest = new CustomerRequest(1L, "firstname", "lastname", "0854444444", "email@mail.com");
+        doThrow(new DuplicateCustomerException(7L)).when(customerService).createCustomer(customerRequest);
+        assertThrows(DuplicateCustomerException.class, () -> customerController.createCustomer(customerRequest));
+
+        doThrow(new ServiceBusyException("busy")).when(customerService).createCustomer(customerRequest);
+        assertThrows(ServiceBusyException.class, () -> customerController.createCustomer(customerRequest));
+    }
+
+    @Test
+    void createCustomersReturnsCreatedIds() {
+        CustomerRequest customerRequest = new CustomerRequest(null, "firstname", "lastname", "0854444444", "email@mail.com");
+        BulkCreateResponse bulkCreateResponse = new BulkCreateResponse(1, List.of(1L));
+        when(customerService.createCustomers(List.of(customerRequest))).thenReturn(bulkCreateResponse);
+
+        ResponseEntity<BulkCreateResponse> response = customerController.createCustomers(new BulkCustomerRequest(List.of(customerRequest)));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(bulkCreateResponse, response.getBody());
+    }
+
     @Test
     void updateCustomerReturnsOk() {
         CustomerRequest customerRequest = new CustomerRequest(1L, "firstname", "lastname", "0854444444", "email@mail.com");
@@ -95,15 +360,25 @@ public class CustomerControllerTest {
     }
 
     @Test
-    void updateCustomerReturnsBadRequestOnException() {
+    void updateCustomerReturnsBadRequestOnConstraintViolation() {
         CustomerRequest customerRequest = new CustomerRequest(1L, "firstname", "lastname", "0854444444", "email@mail.com");
-        doThrow(new RuntimeException()).when(customerService).updateCustomer(1L, customerRequest);
+        doThrow(new DataIntegrityViolationException("NULL not allowed")).when(customerService).updateCustomer(1L, customerRequest);
 
         ResponseEntity<CustomerResponse> response = customerController.updateCustomer(1L, customerRequest);
 
         assertEquals(400, response.getStatusCode().value());
     }
 
+    @Test
+    void updateCustomerLeavesOtherFailuresToTheExceptionHandler() {
+        CustomerRequest customerRequest = new CustomerRequest(1L, "firstname", "lastname", "0854444444", "email@mail.com");
+        doThrow(new CustomerNotFoundException("Customer not found with id 1")).when(customerService).updateCustomer(1L, customerRequest);
+        assertThrows(CustomerNotFoundException.class, () -> customerController.updateCustomer(1L, customerRequest));
+
+        doThrow(new DuplicateCustomerException(7L)).when(customerService).updateCustomer(1L, customerRequest);
+        assertThrows(DuplicateCustomerException.class, () -> customerController.updateCustomer(1L, customerRequest));
+    }
+
     @Test
     void deleteCustomerByIdReturnsOk() {
         ResponseEntity<Boolean> response = customerController.deleteById(1L);
@@ -120,4 +395,41 @@ public class CustomerControllerTest {
         assertEquals(400, response.getStatusCode().value());
     }
 
+    @Test
+    void deleteCustomersReturnsPerIdResult() {
+        BulkDeleteResponse result = new BulkDeleteResponse(1, List.of(1L), List.of(2L));
+        when(customerService.deleteCustomers(List.of(1L, 2L))).thenReturn(result);
+
+        ResponseEntity<BulkDeleteResponse> response = customerController.deleteCustomers(new BulkDeleteRequest(List.of(1L, 2L)));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(result, response.getBody());
+    }
+
+
+    @Test
+    void importCustomersStartsJobAndPointsToItsStatus() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/customer/import");
+        request.setContentType("text/csv");
+        request.setContent("firstname,lastname,phone,email\n".getBytes(StandardCharsets.UTF_8));
+        ImportJobResponse job = new ImportJobResponse("job-1", "CSV", "QUEUED", 0, 0, 0, 0, null, null, null, null, List.of());
+        when(customerImportService.startImport(any(), eq(CustomerImportService.Format.CSV))).thenReturn(job);
+
+        ResponseEntity<ImportJobResponse> response = customerController.importCustomers(request);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("/api/v1/customer/import/job-1", response.getHeaders().getLocation().toString());
+        assertEquals(job, response.getBody());
+
+        when(customerImportService.getImport("job-1")).thenReturn(job);
+        assertEquals(job, customerController.getImportJob("job-1").getBody());
+    }
+
+    @Test
+    void streamChangesSubscribesFromLastEventId() {
+        SseEmitter emitter = new SseEmitter();
+        when(customerChangeFeed.subscribe("abc:7")).thenReturn(emitter);
+
+        assertEquals(emitter, customerController.streamChanges("abc:7"));
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.customerservice.exception;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -49,6 +50,17 @@ class GlobalExceptionHandlerTest {
         assertEquals("Authentication failed", response.getBody());
     }
 
+    @Test
+    void handleDuplicateCustomerExceptionReturnsConflictWithLocation() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        ResponseEntity<String> response = handler.handleDuplicateCustomerException(new DuplicateCustomerException(42L));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("/api/v1/customer/42", Objects.requireNonNull(response.getHeaders().getLocation()).toString());
+        assertEquals("Customer already exists with id 42", response.getBody());
+    }
+
     @Test
     void handleCustomerNotFoundExceptionReturnsNotFound() {
         GlobalExceptionHandler handler = new GlobalExceptionHandler();
@@ -60,6 +72,40 @@ class GlobalExceptionHandlerTest {
         assertEquals("Customer not found", response.getBody());
     }
 
+    @Test
+    void handleTaskRejectedExceptionReturnsServiceUnavailable() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        ResponseEntity<String> response = handler.handleTaskRejectedException(new TaskRejectedException("full"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void handleServiceBusyExceptionReturnsServiceUnavailable() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        ServiceBusyException ex = new ServiceBusyException("Busy");
+
+        ResponseEntity<String> response = handler.handleServiceBusyException(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Busy", response.getBody());
+    }
+
+    @Test
+    void handleTooManyRequestsExceptionReturns429WithRetryAfter() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        TooManyRequestsException ex = new TooManyRequestsException("Slow down", 12);
+
+        ResponseEntity<String> response = handler.handleTooManyRequestsException(ex);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Slow down", response.getBody());
+    }
+
     @Test
     void handleValidationExceptionsReturnsBadRequest() {
         GlobalExceptionHandler handler = new GlobalExceptionHandler();
@@ -0,0 +1,55 @@
+package com.example.customerservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampledRequestTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SampledRequestTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SampledRequestTurboFilter();
+        filter.addLogger("org.hibernate.SQL");
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.remove(SampledRequestTurboFilter.MDC_KEY);
+    }
+
+    @Test
+    void acceptsDebugForConfiguredLoggersOnSampledRequests() {
+        MDC.put(SampledRequestTurboFilter.MDC_KEY, "true");
+
+        assertEquals(FilterReply.ACCEPT, decide("org.hibernate.SQL", Level.DEBUG));
+    }
+
+    @Test
+    void leavesUnsampledRequestsToTheConfiguredLevel() {
+        assertEquals(FilterReply.NEUTRAL, decide("org.hibernate.SQL", Level.DEBUG));
+    }
+
+    @Test
+    void ignoresOtherLoggersAndLevels() {
+        MDC.put(SampledRequestTurboFilter.MDC_KEY, "true");
+
+        assertEquals(FilterReply.NEUTRAL, decide("org.springframework.web", Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide("org.hibernate.SQL", Level.TRACE));
+        assertEquals(FilterReply.NEUTRAL, decide("org.hibernate.SQL", Level.INFO));
+    }
+
+    private FilterReply decide(String loggerName, Level level) {
+        Logger logger = context.getLogger(loggerName);
+        return filter.decide(null, logger, level, "select 1", null, null);
+    }
+}
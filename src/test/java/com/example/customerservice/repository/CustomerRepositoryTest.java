@@ -0,0 +1,132 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.configuration.JpaConfig;
+import com.example.customerservice.model.entity.CustomerEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class CustomerRepositoryTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void patchByIdKeepsNullFieldsAndBumpsUpdateDate() {
+        CustomerEntity saved = customerRepository.saveAndFlush(
+                new CustomerEntity(null, "John", "Doe", "081-111-1111", "John@Example.com"));
+        LocalDateTime patchedAt = saved.getUpdateDate().plusMinutes(1).truncatedTo(ChronoUnit.MICROS);
+
+        int updated = customerRepository.patchById(saved.getId(), "Jane", null, null, null, null, null, patchedAt);
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        CustomerEntity patched = customerRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Jane", patched.getFirstname());
+        assertEquals("Doe", patched.getLastname());
+        assertEquals("081-111-1111", patched.getPhone());
+        assertEquals("John@Example.com", patched.getEmail());
+        assertEquals("john@example.com", patched.getNormalizedEmail());
+        assertEquals("0811111111", patched.getNormalizedPhone());
+        assertEquals("jane doe", patched.getNormalizedName());
+        assertEquals(patchedAt, patched.getUpdateDate());
+    }
+
+    @Test
+    void patchByIdRecomputesSearchColumnsForChangedContacts() {
+        CustomerEntity saved = customerRepository.saveAndFlush(
+                new CustomerEntity(null, "John", "Doe", "0811111111", "john@example.com"));
+
+        customerRepository.patchById(saved.getId(), null, " Smith ", "082-222-2222", "New@Example.com",
+                "0822222222", "new@example.com", LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        entityManager.clear();
+
+        CustomerEntity patched = customerRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("John", patched.getFirstname());
+        assertEquals("new@example.com", patched.getNormalizedEmail());
+        assertEquals("0822222222", patched.getNormalizedPhone());
+        assertEquals("john smith", patched.getNormalizedName());
+    }
+
+    @Test
+    void patchByIdReturnsZeroForMissingId() {
+        assertEquals(0, customerRepository.patchById(-1L, "Jane", null, null, null, null, null, LocalDateTime.now()));
+    }
+
+    @Test
+    void findByNamePrefixPagesThroughTheNameRangeInIndexOrder() {
+        CustomerEntity annLee = save("Ann", "Lee", "0811111111", "ann@example.com");
+        CustomerEntity annaSmith = save("Anna", "Smith", "0822222222", "anna@example.com");
+        CustomerEntity anneBrown = save("Anne", "Brown", "0833333333", "anne@example.com");
+        save("Bob", "Ann", "0844444444", "bob@example.com");
+        save("Andy", "Ann", "0855555555", "andy@example.com");
+
+        List<CustomerEntity> first = customerRepository.findByNamePrefix("ann", "ano", "", 0L, Limit.of(2));
+        assertEquals(List.of(annLee.getId(), annaSmith.getId()), ids(first));
+
+        CustomerEntity last = first.get(1);
+        List<CustomerEntity> second = customerRepository.findByNamePrefix("ann", "ano",
+                last.getNormalizedName(), last.getId(), Limit.of(2));
+        assertEquals(List.of(anneBrown.getId()), ids(second));
+    }
+
+    @Test
+    void findByNamePrefixWithoutUpperBoundScansToTheEnd() {
+        save("Ann", "Lee", "0811111111", "ann@example.com");
+        CustomerEntity bob = save("Bob", "Ann", "0844444444", "bob@example.com");
+        CustomerEntity zoe = save("Zoe", "Park", "0855555555", "zoe@example.com");
+
+        List<CustomerEntity> page = customerRepository.findByNamePrefix("bob", null, "", 0L, Limit.of(10));
+
+        assertEquals(List.of(bob.getId(), zoe.getId()), ids(page));
+    }
+
+    @Test
+    void findByNamePrefixBreaksNameTiesById() {
+        CustomerEntity first = save("Ann", "Lee", "0811111111", "ann1@example.com");
+        CustomerEntity second = save("Ann", "Lee", "0822222222", "ann2@example.com");
+
+        List<CustomerEntity> page = customerRepository.findByNamePrefix("ann lee", "ann lef",
+                "ann lee", first.getId(), Limit.of(10));
+
+        assertEquals(List.of(second.getId()), ids(page));
+    }
+
+    @Test
+    void findTableVersionReportsCountAndNewestUpdate() {
+        CustomerTableVersion empty = customerRepository.findTableVersion();
+        assertEquals(0L, empty.count());
+        assertNull(empty.lastModified());
+
+        save("Ann", "Lee", "0811111111", "ann@example.com");
+        CustomerEntity newest = save("Bob", "Ray", "0822222222", "bob@example.com");
+        LocalDateTime patchedAt = newest.getUpdateDate().plusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+        customerRepository.patchById(newest.getId(), "Rob", null, null, null, null, null, patchedAt);
+
+        CustomerTableVersion version = customerRepository.findTableVersion();
+        assertEquals(2L, version.count());
+        assertEquals(patchedAt, version.lastModified());
+    }
+
+    private CustomerEntity save(String firstname, String lastname, String phone, String email) {
+        return customerRepository.saveAndFlush(new CustomerEntity(null, firstname, lastname, phone, email));
+    }
+
+    private static List<Long> ids(List<CustomerEntity> customers) {
+        return customers.stream().map(CustomerEntity::getId).toList();
+    }
+}
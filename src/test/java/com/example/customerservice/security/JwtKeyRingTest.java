@@ -0,0 +1,179 @@
+package com.example.customerservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final Duration ROTATION = Duration.ofDays(7);
+    private static final Duration OVERLAP = Duration.ofDays(1);
+    private static final Duration LEAD = Duration.ofMinutes(10);
+
+    @TempDir
+    private Path keyDir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void generatesAndPersistsASigningKeyOnFirstStart() throws IOException {
+        JwtKeyRing ring = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+
+        assertNotNull(ring.signingKey());
+        assertEquals(1, keyFiles());
+        assertEquals(ring.signingKey().publicKey(), ring.verificationKey(ring.signingKey().kid()));
+        assertTrue(ring.jwks().contains("\"kid\":\"" + ring.signingKey().kid() + "\""));
+        assertFalse(ring.jwks().contains("\"d\""), "JWKS must not expose the private key");
+    }
+
+    @Test
+    void instancesSharingTheDirectoryUseTheSameKey() {
+        JwtKeyRing first = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+        JwtKeyRing second = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+
+        assertEquals(first.signingKey().kid(), second.signingKey().kid());
+        assertEquals(first.signingKey().privateKey(), second.signingKey().privateKey());
+    }
+
+    @Test
+    void publishesTheNextKeyAheadOfSigningAndKeepsTheOldKeyForTheOverlap() throws IOException {
+        JwtKeyRing ring = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+        String oldKid = ring.signingKey().kid();
+
+        clock.advance(ROTATION.minus(LEAD).minusSeconds(1));
+        ring.rotate();
+        assertEquals(1, keyFiles());
+
+        clock.advance(Duration.ofSeconds(1));
+        ring.rotate();
+        assertEquals(2, keyFiles());
+        assertEquals(oldKid, ring.signingKey().kid(), "the next key must not sign before it is due");
+        String newKid = kidsOnDisk().stream().filter(kid -> !kid.equals(oldKid)).findFirst().orElseThrow();
+        assertTrue(ring.jwks().contains("\"kid\":\"" + newKid + "\""), "the next key is published before it signs");
+        assertNotNull(ring.verificationKey(newKid));
+
+        clock.advance(LEAD);
+        assertEquals(newKid, ring.signingKey().kid(), "the next key signs once due, without waiting for a check");
+        ring.rotate();
+        assertEquals(newKid, ring.signingKey().kid());
+        assertNotNull(ring.verificationKey(oldKid));
+        assertEquals(2, keyFiles());
+
+        clock.advance(OVERLAP);
+        ring.rotate();
+        assertNull(ring.verificationKey(oldKid));
+        assertEquals(newKid, ring.signingKey().kid());
+        assertEquals(1, keyFiles());
+    }
+
+    @Test
+    void unknownKidReloadsKeysWrittenByAnotherInstance() {
+        JwtKeyRing ring = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+        clock.advance(ROTATION);
+        JwtKeyRing rotatedElsewhere = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+        clock.advance(LEAD);
+        String newKid = rotatedElsewhere.signingKey().kid();
+        assertNotEquals(ring.signingKey().kid(), newKid);
+
+        assertEquals(rotatedElsewhere.signingKey().publicKey(), ring.verificationKey(newKid));
+        assertNull(ring.verificationKey("no-such-kid"));
+        assertNull(ring.verificationKey(null));
+    }
+
+    @Test
+    void unknownKidsReloadAtMostOncePerSecond(@TempDir Path otherDir) throws IOException {
+        JwtKeyRing ring = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+        clock.advance(Duration.ofSeconds(2));
+        assertNull(ring.verificationKey("no-such-kid"));
+
+        String newKid = new JwtKeyRing(otherDir, ROTATION, OVERLAP, LEAD, clock).signingKey().kid();
+        Files.copy(otherDir.resolve(newKid + ".jwk.json"), keyDir.resolve(newKid + ".jwk.json"));
+        assertNull(ring.verificationKey(newKid), "a reload was just done for the previous unknown kid");
+
+        clock.advance(Duration.ofSeconds(2));
+        assertNotNull(ring.verificationKey(newKid));
+    }
+
+    @Test
+    void reparsesOnlyNewOrModifiedKeyFiles() throws IOException {
+        JwtKeyRing ring = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+        String kid = ring.signingKey().kid();
+        Path file = keyDir.resolve(kid + ".jwk.json");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000));
+        ring.rotate();
+
+        // Same modification time: the parsed key is reused even though the file no longer parses.
+        Files.writeString(file, "{not json");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000));
+        ring.rotate();
+        assertEquals(kid, ring.signingKey().kid());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000));
+        ring.rotate();
+        assertNotEquals(kid, ring.signingKey().kid());
+    }
+
+    @Test
+    void skipsUnreadableKeyFiles() throws IOException {
+        Files.writeString(keyDir.resolve("broken.jwk.json"), "{not json");
+
+        JwtKeyRing ring = new JwtKeyRing(keyDir, ROTATION, OVERLAP, LEAD, clock);
+
+        assertNotNull(ring.signingKey());
+    }
+
+    private long keyFiles() throws IOException {
+        try (Stream<Path> files = Files.list(keyDir)) {
+            return files.filter(path -> path.toString().endsWith(".jwk.json")).count();
+        }
+    }
+
+    private List<String> kidsOnDisk() throws IOException {
+        try (Stream<Path> files = Files.list(keyDir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".jwk.json"))
+                    .map(name -> name.substring(0, name.length() - ".jwk.json".length()))
+                    .toList();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.customerservice.security;
+
+import com.example.customerservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+    }
+
+    private LoginRateLimiter limiter(int ipCapacity, int usernameCapacity, int maxBuckets) {
+        // One token per second refill for both limits.
+        return new LoginRateLimiter(ipCapacity, 60, usernameCapacity, 60, maxBuckets, meterRegistry, clock::get);
+    }
+
+    @Test
+    void rejectsUsernameOnceItsBucketIsEmptyAndRefillsOverTime() {
+        LoginRateLimiter limiter = limiter(100, 2, 100);
+
+        limiter.checkLogin("alice", "10.0.0.1");
+        limiter.checkLogin("Alice ", "10.0.0.2");
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.checkLogin("alice", "10.0.0.3"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        limiter.checkLogin("bob", "10.0.0.1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.checkLogin("alice", "10.0.0.1");
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("limit", "username").counter().count());
+    }
+
+    @Test
+    void rejectsClientIpWithoutSpendingUsernameAttempts() {
+        LoginRateLimiter limiter = limiter(1, 1, 100);
+
+        limiter.checkLogin("alice", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("bob", "10.0.0.1"));
+
+        limiter.checkLogin("bob", "10.0.0.2");
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void newKeysBeyondMaxBucketsEvictOthersInsteadOfSharingABucket() {
+        LoginRateLimiter limiter = limiter(0, 1, 2);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.checkLogin("user" + i, "10.0.0.1");
+        }
+        limiter.checkLogin("carol", "10.0.0.1");
+        assertTrue(limiter.trackedBuckets() <= 2, "tracked " + limiter.trackedBuckets());
+    }
+
+    @Test
+    void evictsBucketsIdleLongEnoughToHaveRefilled() {
+        LoginRateLimiter limiter = limiter(2, 2, 100);
+        limiter.checkLogin("alice", "10.0.0.1");
+        assertEquals(2, limiter.trackedBuckets());
+
+        limiter.evictIdleBuckets();
+        assertEquals(2, limiter.trackedBuckets());
+
+        // Idle long enough to refill from empty: two tokens at one per second.
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.evictIdleBuckets();
+        assertEquals(0, limiter.trackedBuckets());
+        assertEquals(0.0, meterRegistry.get("auth.login.buckets").tag("limit", "ip").gauge().value());
+    }
+
+    @Test
+    void zeroCapacityDisablesTheLimit() {
+        LoginRateLimiter limiter = limiter(0, 0, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.checkLogin("alice", "10.0.0.1");
+        }
+        assertEquals(0, limiter.trackedBuckets());
+    }
+}
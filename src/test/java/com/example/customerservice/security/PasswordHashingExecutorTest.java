@@ -0,0 +1,86 @@
+package com.example.customerservice.security;
+
+import com.example.customerservice.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void callReturnsTaskResult() {
+        executor = new PasswordHashingExecutor(1, 1, 5000);
+
+        assertEquals("hash", executor.call(() -> "hash"));
+    }
+
+    @Test
+    void callRethrowsTaskRuntimeException() {
+        executor = new PasswordHashingExecutor(1, 1, 5000);
+
+        assertThrows(BadCredentialsException.class, () -> executor.call(() -> {
+            throw new BadCredentialsException("bad");
+        }));
+    }
+
+    @Test
+    void callAllReturnsResultsInOrderWithoutFillingTheQueue() {
+        executor = new PasswordHashingExecutor(2, 2, 5000);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            tasks.add(() -> {
+                assertTrue(executor.queuedTasks() <= 2);
+                return value * value;
+            });
+        }
+
+        List<Integer> results = executor.callAll(tasks);
+
+        assertEquals(50, results.size());
+        assertEquals(49 * 49, results.get(49));
+    }
+
+    @Test
+    void callRejectsWhenPoolAndQueueAreFull() throws Exception {
+        executor = new PasswordHashingExecutor(1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.call(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> executor.call(() -> release.await(5, TimeUnit.SECONDS)));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.queuedTasks() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(ServiceBusyException.class, () -> executor.call(() -> "rejected"));
+    }
+
+    @Test
+    void callTimesOutWhenTaskTakesTooLong() {
+        executor = new PasswordHashingExecutor(1, 1, 50);
+
+        assertThrows(ServiceBusyException.class, () -> executor.call(() -> release.await(5, TimeUnit.SECONDS)));
+    }
+}
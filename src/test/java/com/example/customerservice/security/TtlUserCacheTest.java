@@ -0,0 +1,53 @@
+package com.example.customerservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlUserCacheTest {
+
+    private final UserDetails user = User.withUsername("user1").password("hash").roles("USER").build();
+
+    @Test
+    void returnsCachedUserUntilEvicted() {
+        TtlUserCache cache = new TtlUserCache(60000, 10);
+        cache.putUserInCache(user);
+
+        assertSame(user, cache.getUserFromCache("user1"));
+
+        cache.removeUserFromCache("user1");
+
+        assertNull(cache.getUserFromCache("user1"));
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() throws InterruptedException {
+        TtlUserCache cache = new TtlUserCache(1, 10);
+        cache.putUserInCache(user);
+
+        Thread.sleep(5);
+
+        assertNull(cache.getUserFromCache("user1"));
+    }
+
+    @Test
+    void evictsToStayWithinMaxSize() {
+        TtlUserCache cache = new TtlUserCache(60000, 10);
+        for (int i = 0; i < 100; i++) {
+            cache.putUserInCache(User.withUsername("user" + i).password("hash").roles("USER").build());
+        }
+
+        assertTrue(cache.size() <= 10, "size " + cache.size());
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void cachesNothingWhenDisabled() {
+        TtlUserCache cache = new TtlUserCache(0, 10);
+        cache.putUserInCache(user);
+
+        assertNull(cache.getUserFromCache("user1"));
+    }
+}
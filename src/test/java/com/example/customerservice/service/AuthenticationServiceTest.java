@@ -5,7 +5,11 @@ import com.example.customerservice.model.request.LoginRequest;
 import com.example.customerservice.model.request.RegisterRequest;
 import com.example.customerservice.model.response.LoginResponse;
 import com.example.customerservice.model.response.RegisterResponse;
+import com.example.customerservice.security.PasswordHashingExecutor;
 import com.example.customerservice.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -15,12 +19,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
 
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,7 +51,8 @@ class AuthenticationServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        authenticationService = new AuthenticationService(authenticationManager, jwtUtils, passwordEncoder, jdbcUserDetailsManager);
+        authenticationService = new AuthenticationService(authenticationManager, jwtUtils, passwordEncoder, jdbcUserDetailsManager,
+                new PasswordHashingExecutor(1, 4, 5000), new SimpleMeterRegistry());
     }
 
     @Test
@@ -81,11 +89,56 @@ class AuthenticationServiceTest {
         doReturn(Collections.singletonList(authority)).when(userDetails).getAuthorities();
 
         when(jwtUtils.generateTokenFromUsername(userDetails)).thenReturn("jwtToken");
+        when(jwtUtils.generateRefreshToken(userDetails)).thenReturn("refreshToken");
 
         LoginResponse response = authenticationService.authenticateUser(validRequest);
 
         assertEquals("username", response.getUsername());
         assertEquals("jwtToken", response.getJwtToken());
+        assertEquals("refreshToken", response.getRefreshToken());
+    }
+
+    @Test
+    void refreshTokenRevokesItAndIssuesNewPairWithoutPasswordCheck() {
+        Claims claims = Jwts.claims().subject("username").id("jti").build();
+        UserDetails user = User.withUsername("username").password("hash").roles("USER").build();
+        when(jwtUtils.getValidatedRefreshClaims("refresh")).thenReturn(Optional.of(claims));
+        when(jwtUtils.revoke(claims)).thenReturn(true);
+        when(jdbcUserDetailsManager.loadUserByUsername("username")).thenReturn(user);
+        when(jwtUtils.generateTokenFromUsername(user)).thenReturn("newAccess");
+        when(jwtUtils.generateRefreshToken(user)).thenReturn("newRefresh");
+
+        LoginResponse response = authenticationService.refreshToken("refresh");
+
+        assertEquals("newAccess", response.getJwtToken());
+        assertEquals("newRefresh", response.getRefreshToken());
+        assertEquals(List.of("ROLE_USER"), response.getRoles());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void refreshTokenRejectsInvalidOrAlreadyUsedTokens() {
+        Claims claims = Jwts.claims().subject("username").id("jti").build();
+        when(jwtUtils.getValidatedRefreshClaims("invalid")).thenReturn(Optional.empty());
+        when(jwtUtils.getValidatedRefreshClaims("used")).thenReturn(Optional.of(claims));
+        when(jwtUtils.revoke(claims)).thenReturn(false);
+
+        assertThrows(AuthenticationFailedException.class, () -> authenticationService.refreshToken("invalid"));
+        assertThrows(AuthenticationFailedException.class, () -> authenticationService.refreshToken("used"));
+        verify(jwtUtils, never()).generateTokenFromUsername(any());
+    }
+
+    @Test
+    void logoutRevokesBothTokens() {
+        Claims access = Jwts.claims().subject("username").id("a").build();
+        Claims refresh = Jwts.claims().subject("username").id("r").build();
+        when(jwtUtils.getValidatedClaims("access")).thenReturn(Optional.of(access));
+        when(jwtUtils.getValidatedRefreshClaims("refresh")).thenReturn(Optional.of(refresh));
+
+        authenticationService.logout("access", "refresh");
+
+        verify(jwtUtils).revoke(access);
+        verify(jwtUtils).revoke(refresh);
     }
 
     @Test
@@ -0,0 +1,62 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.model.response.CustomerResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTest {
+
+    private final CustomerResponse customer = new CustomerResponse(1L, "first", "last", "0811111111", "a@mail.com");
+
+    @Test
+    void loadsOnceAndCountsHitsAndMisses() {
+        CustomerCache cache = new CustomerCache(10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(customer);
+        });
+        Optional<CustomerResponse> second = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(customer);
+        });
+
+        assertEquals(Optional.of(customer), second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void doesNotCacheMissingCustomers() {
+        CustomerCache cache = new CustomerCache(10, 60000);
+
+        assertTrue(cache.get(1L, id -> Optional.empty()).isEmpty());
+        assertEquals(Optional.of(customer), cache.get(1L, id -> Optional.of(customer)));
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        CustomerCache cache = new CustomerCache(10, 20);
+        cache.put(customer);
+
+        Thread.sleep(50);
+
+        assertTrue(cache.get(1L, id -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void invalidateRemovesEntry() {
+        CustomerCache cache = new CustomerCache(10, 60000);
+        cache.put(customer);
+
+        cache.invalidate(1L);
+
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.exception.ServiceBusyException;
+import com.example.customerservice.model.response.CustomerResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class CustomerChangeFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CustomerChangeFeed feed;
+    private MockMvc mockMvc;
+
+    @RestController
+    static class ChangesController {
+        private final CustomerChangeFeed feed;
+
+        ChangesController(CustomerChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        @GetMapping("/changes")
+        SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return feed.subscribe(lastEventId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        feed = new CustomerChangeFeed(4, 2, 60000, meterRegistry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ChangesController(feed)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void streamsChangesPublishedAfterSubscribing() throws Exception {
+        feed.deleted(99L);
+        MvcResult result = mockMvc.perform(get("/changes")).andReturn();
+        awaitContent(result, ":stream ");
+
+        feed.created(new CustomerResponse(1L, "Ann", "Lee", "081", "a@example.com"));
+        feed.updated(1L, null);
+        feed.deleted(1L);
+
+        String body = awaitContent(result, "event:DELETED");
+        assertFalse(body.contains("\"customerId\":99"));
+        assertTrue(body.contains("id:" + feed.eventId(2) + "\nevent:CREATED\n"));
+        assertTrue(body.contains("\"firstname\":\"Ann\""));
+        assertTrue(body.contains("id:" + feed.eventId(3) + "\nevent:UPDATED\n"));
+        assertTrue(body.contains("id:" + feed.eventId(4) + "\nevent:DELETED\n"));
+        assertTrue(result.getRequest().isAsyncStarted());
+    }
+
+    @Test
+    void resumesAfterLastEventId() throws Exception {
+        for (long id = 1; id <= 3; id++) {
+            feed.deleted(id);
+        }
+
+        MvcResult result = mockMvc.perform(get("/changes").header("Last-Event-ID", feed.eventId(1))).andReturn();
+
+        String body = awaitContent(result, "id:" + feed.eventId(3));
+        assertFalse(body.contains("id:" + feed.eventId(1) + "\n"));
+        assertTrue(body.contains("id:" + feed.eventId(2) + "\n"));
+    }
+
+    @Test
+    void asksForResyncWhenTheResumePointIsGone() throws Exception {
+        for (long id = 1; id <= 10; id++) {
+            feed.deleted(id);
+        }
+
+        for (String lastEventId : new String[]{feed.eventId(2), "other:5", feed.eventId(11), "garbage"}) {
+            MvcResult result = mockMvc.perform(get("/changes").header("Last-Event-ID", lastEventId)).andReturn();
+
+            String body = awaitContent(result, "event:resync");
+            assertTrue(body.contains("id:" + feed.eventId(10) + "\nevent:resync\ndata:{\"sequence\":10}"), body);
+            assertFalse(body.contains("event:DELETED"));
+        }
+        assertEquals(4, meterRegistry.get("customer.changes.resyncs").counter().count());
+    }
+
+    @Test
+    void rejectsSubscribersBeyondTheLimit() throws Exception {
+        mockMvc.perform(get("/changes")).andReturn();
+        mockMvc.perform(get("/changes")).andReturn();
+
+        assertThrows(ServiceBusyException.class, () -> feed.subscribe(null));
+        assertEquals(2, meterRegistry.get("customer.changes.subscribers").gauge().value());
+    }
+
+    @Test
+    void concurrentSubscribersCannotOverrunTheLimit() throws Exception {
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                        feed.subscribe(null);
+                        accepted.incrementAndGet();
+                    } catch (ServiceBusyException e) {
+                        rejected.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(2, accepted.get());
+        assertEquals(threads - 2, rejected.get());
+        assertEquals(2, meterRegistry.get("customer.changes.subscribers").gauge().value());
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains(expected), body);
+        return body;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.repository.CustomerContact;
+import com.example.customerservice.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerContactIndexTest {
+
+    private static final CustomerContact INDEXED = new CustomerContact(5L, "a@example.com", "0811111111");
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CustomerContactIndex contactIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Every complete pair of contacts hashes to the same key.
+        contactIndex = new CustomerContactIndex(customerRepository, 16, new SimpleMeterRegistry(),
+                (email, phone) -> email == null || phone == null ? 0 : 42);
+        when(customerRepository.streamContacts()).thenReturn(Stream.of(INDEXED));
+        contactIndex.rebuild();
+    }
+
+    @Test
+    void collisionWithALiveCustomerKeepsItsEntry() {
+        when(customerRepository.findIdByContact("b@example.com", "0822222222")).thenReturn(Optional.empty());
+        when(customerRepository.findContactById(5L)).thenReturn(Optional.of(INDEXED));
+
+        assertEquals(0, contactIndex.findExisting("b@example.com", "0822222222", null));
+        assertEquals(1, contactIndex.size());
+
+        when(customerRepository.findIdByContact("a@example.com", "0811111111")).thenReturn(Optional.of(5L));
+        assertEquals(5, contactIndex.findExisting("a@example.com", "0811111111", null));
+    }
+
+    @Test
+    void collisionWithAnotherMatchingCustomerDoesNotOverwriteTheEntry() {
+        when(customerRepository.findIdByContact("b@example.com", "0822222222")).thenReturn(Optional.of(9L));
+        when(customerRepository.findContactById(5L)).thenReturn(Optional.of(INDEXED));
+
+        assertEquals(9, contactIndex.findExisting("b@example.com", "0822222222", null));
+
+        when(customerRepository.findIdByContact("a@example.com", "0811111111")).thenReturn(Optional.of(5L));
+        assertEquals(5, contactIndex.findExisting("a@example.com", "0811111111", null));
+        verify(customerRepository, times(1)).findContactById(5L);
+    }
+
+    @Test
+    void deletedCustomerEntryIsRemoved() {
+        when(customerRepository.findIdByContact("a@example.com", "0811111111")).thenReturn(Optional.empty());
+        when(customerRepository.findContactById(5L)).thenReturn(Optional.empty());
+
+        assertEquals(0, contactIndex.findExisting("a@example.com", "0811111111", null));
+        assertEquals(0, contactIndex.size());
+    }
+
+    @Test
+    void customerWhoseContactsChangedLosesTheEntry() {
+        when(customerRepository.findIdByContact("a@example.com", "0811111111")).thenReturn(Optional.empty());
+        when(customerRepository.findContactById(5L))
+                .thenReturn(Optional.of(new CustomerContact(5L, "a@example.com", null)));
+
+        assertEquals(0, contactIndex.findExisting("a@example.com", "0811111111", null));
+        assertEquals(0, contactIndex.size());
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.exception.ImportJobNotFoundException;
+import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.model.response.ImportJobResponse;
+import com.example.customerservice.repository.CustomerContact;
+import com.example.customerservice.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class CustomerImportServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private final List<List<CustomerEntity>> insertedChunks = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CustomerContactIndex contactIndex;
+    private CustomerChangeFeed changeFeed;
+    private CustomerImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(customerRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<CustomerEntity> chunk = invocation.getArgument(0);
+            insertedChunks.add(List.copyOf(chunk));
+            return chunk;
+        });
+        contactIndex = new CustomerContactIndex(customerRepository, 16, meterRegistry);
+        changeFeed = new CustomerChangeFeed(16, 10, 15000, meterRegistry);
+        importService = new CustomerImportService(customerRepository, contactIndex, changeFeed,
+                new ObjectMapper(),
+                2, 1, 1, 1, 1_000_000, 60000, false, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void importsCsvInChunksAndReportsRejectedRows() throws Exception {
+        String csv = "\uFEFFemail,firstname,lastname,phone\n"
+                + "a@example.com,Ann,Lee,0811111111\n"
+                + "b@example.com,\"Bo, Jr\",Kim,0822222222\n"
+                + "c@example.com,,Park,0833333333\n"
+                + "\n"
+                + "d@example.com,Dee,Chan\n"
+                + "e@example.com,Eve,Ng,0855555555\n";
+
+        ImportJobResponse job = awaitFinished(start(csv, CustomerImportService.Format.CSV));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(5, job.getRowsRead());
+        assertEquals(3, job.getImported());
+        assertEquals(2, job.getRejected());
+        assertEquals(List.of(new ImportJobResponse.RejectedRow(4, "firstname must not be blank"),
+                new ImportJobResponse.RejectedRow(6, "Expected 4 fields but found 3")), job.getRejectedRows());
+        assertEquals(List.of(2, 1), insertedChunks.stream().map(List::size).toList());
+        assertEquals("Bo, Jr", insertedChunks.get(0).get(1).getFirstname());
+        assertEquals(3, meterRegistry.get("customer.import.rows").tag("result", "imported").counter().count());
+    }
+
+    @Test
+    void importsNdjsonAndRejectsMalformedLines() throws Exception {
+        String ndjson = "{\"firstname\":\"Ann\",\"lastname\":\"Lee\",\"phone\":\"0811111111\",\"email\":\"a@example.com\"}\n"
+                + "{not json}\n"
+                + "{\"firstname\":\"Bo\",\"lastname\":\"Kim\",\"phone\":\" \",\"email\":\"b@example.com\"}\n";
+
+        ImportJobResponse job = awaitFinished(start(ndjson, CustomerImportService.Format.NDJSON));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(1, job.getImported());
+        assertEquals(2, job.getRejected());
+        assertEquals(3, job.getRejectedRows().get(1).getLine());
+        assertEquals("phone must not be blank", job.getRejectedRows().get(1).getReason());
+    }
+
+    @Test
+    void rejectsRowsDuplicatingExistingCustomersOrEarlierRows() throws Exception {
+        when(customerRepository.streamContacts()).thenReturn(Stream.of(new CustomerContact(5L, "a@example.com", "01")));
+        contactIndex.rebuild();
+        when(customerRepository.findIdByContact("a@example.com", "01")).thenReturn(Optional.of(5L));
+        Set<String> stored = new HashSet<>();
+        AtomicLong sequence = new AtomicLong(100);
+        when(customerRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<CustomerEntity> chunk = invocation.getArgument(0);
+            List<String> emails = chunk.stream().map(customer -> customer.getEmail().toLowerCase()).toList();
+            if (new HashSet<>(emails).size() < emails.size() || emails.stream().anyMatch(stored::contains)) {
+                throw new DataIntegrityViolationException("duplicate",
+                        new RuntimeException("Unique index violation: UK_CUSTOMER_CONTACT"));
+            }
+            stored.addAll(emails);
+            chunk.forEach(customer -> {
+                customer.setId(sequence.incrementAndGet());
+                customer.normalize();
+            });
+            insertedChunks.add(List.copyOf(chunk));
+            return chunk;
+        });
+        when(customerRepository.findIdByContact("b@example.com", "02")).thenReturn(Optional.of(101L));
+        String csv = "firstname,lastname,phone,email\n"
+                + "Ann,Lee,01,A@example.com\n"
+                + "Bo,Kim,02,b@example.com\n"
+                + "Bo,Kim,0-2,B@example.com\n";
+
+        ImportJobResponse job = awaitFinished(start(csv, CustomerImportService.Format.CSV));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(1, job.getImported());
+        assertEquals(List.of(new ImportJobResponse.RejectedRow(2, "Duplicate of customer 5"),
+                new ImportJobResponse.RejectedRow(4, "Duplicate of customer 101")), job.getRejectedRows());
+        assertEquals(2, contactIndex.size());
+    }
+
+    @Test
+    void runsJobsOnVirtualThreadsWhenEnabled() throws Exception {
+        importService.shutdown();
+        importService = new CustomerImportService(customerRepository, contactIndex, changeFeed,
+                new ObjectMapper(),
+                2, 1, 1, 1, 1_000_000, 60000, true, meterRegistry);
+        List<Thread> writers = new CopyOnWriteArrayList<>();
+        when(customerRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            writers.add(Thread.currentThread());
+            return invocation.getArgument(0);
+        });
+
+        ImportJobResponse job = awaitFinished(start("firstname,lastname,phone,email\nAnn,Lee,01,a@example.com\n",
+                CustomerImportService.Format.CSV));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(1, writers.size());
+        assertTrue(writers.get(0).isVirtual());
+        assertTrue(writers.get(0).getName().startsWith("customer-import-writer-"));
+    }
+
+    @Test
+    void failsTheJobWhenTheCsvHeaderIsMissingColumns() throws Exception {
+        ImportJobResponse job = awaitFinished(start("name,email\nAnn,a@example.com\n", CustomerImportService.Format.CSV));
+
+        assertEquals("FAILED", job.getStatus());
+        assertTrue(job.getError().startsWith("CSV header must name the columns"));
+        assertTrue(insertedChunks.isEmpty());
+    }
+
+    @Test
+    void failsTheJobWhenTheWriterFails() throws Exception {
+        when(customerRepository.insertAll(anyList())).thenThrow(new IllegalStateException("database down"));
+        StringBuilder csv = new StringBuilder("firstname,lastname,phone,email\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("F").append(i).append(",L,08").append(i).append(",x").append(i).append("@example.com\n");
+        }
+
+        ImportJobResponse job = awaitFinished(start(csv.toString(), CustomerImportService.Format.CSV));
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals("database down", job.getError());
+        assertEquals(0, job.getImported());
+    }
+
+    @Test
+    void rejectsOversizedUploadsAndUnknownJobs() {
+        CustomerImportService small = new CustomerImportService(customerRepository, contactIndex, changeFeed,
+                new ObjectMapper(),
+                2, 1, 1, 1, 10, 60000, false, meterRegistry);
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> small.startImport(stream("firstname,lastname,phone,email\n"), CustomerImportService.Format.CSV));
+        } finally {
+            small.shutdown();
+        }
+        assertThrows(ImportJobNotFoundException.class, () -> importService.getImport("missing"));
+        assertEquals(CustomerImportService.Format.CSV, CustomerImportService.Format.fromContentType("text/csv;charset=UTF-8"));
+        assertEquals(CustomerImportService.Format.NDJSON, CustomerImportService.Format.fromContentType("application/x-ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> CustomerImportService.Format.fromContentType("application/json"));
+    }
+
+    private String start(String body, CustomerImportService.Format format) throws IOException {
+        return importService.startImport(stream(body), format).getId();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImportJobResponse awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        ImportJobResponse job = importService.getImport(jobId);
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = importService.getImport(jobId);
+        }
+        assertNotNull(job.getFinishedAt(), "import did not finish");
+        return job;
+    }
+}
@@ -1,18 +1,32 @@
 package com.example.customerservice.service;
 
 import com.example.customerservice.exception.CustomerNotFoundException;
+import com.example.customerservice.exception.DuplicateCustomerException;
 import com.example.customerservice.model.entity.CustomerEntity;
+import com.example.customerservice.model.request.CustomerPatchRequest;
 import com.example.customerservice.model.request.CustomerRequest;
+import com.example.customerservice.model.response.BulkCreateResponse;
+import com.example.customerservice.model.response.BulkDeleteResponse;
+import com.example.customerservice.model.response.CustomerPageResponse;
 import com.example.customerservice.model.response.CustomerResponse;
+import com.example.customerservice.repository.CustomerContact;
 import com.example.customerservice.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,7 +36,12 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
-    @InjectMocks
+    private CustomerCache customerCache;
+
+    private CustomerContactIndex contactIndex;
+
+    private CustomerChangeFeed changeFeed;
+
     private CustomerService customerService;
 
     CustomerEntity customer1;
@@ -31,6 +50,10 @@ public class CustomerServiceTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        customerCache = new CustomerCache(100, 60000);
+        contactIndex = new CustomerContactIndex(customerRepository, 16, new SimpleMeterRegistry());
+        changeFeed = new CustomerChangeFeed(16, 10, 15000, new SimpleMeterRegistry());
+        customerService = new CustomerService(customerRepository, customerCache, contactIndex, changeFeed, 2, 3, 2, 5);
         customer1 = new CustomerEntity(1L, "first", "lastname1", "0111111111", "one@mail.com");
         customer2 = new CustomerEntity(2L, "second", "lastname2", "02222222222", "two@mail.com");
     }
@@ -47,6 +70,133 @@ public class CustomerServiceTest {
         assertEquals("second", customerResponses.get(1).getFirstname());
     }
 
+    @Test
+    void getCustomerPageReturnsNextCursorWhenMoreRowsExist() {
+        CustomerEntity customer3 = new CustomerEntity(3L, "third", "lastname3", "0333333333", "three@mail.com");
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(customer1, customer2, customer3));
+
+        CustomerPageResponse page = customerService.getCustomerPage(null, null);
+
+        assertEquals(2, page.getCustomers().size());
+        assertNotNull(page.getNextCursor());
+
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(customer3));
+
+        CustomerPageResponse nextPage = customerService.getCustomerPage(page.getNextCursor(), null);
+
+        assertEquals(1, nextPage.getCustomers().size());
+        assertEquals("third", nextPage.getCustomers().get(0).getFirstname());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void getCustomerPageCapsRequestedSize() {
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(4))).thenReturn(List.of(customer1));
+
+        customerService.getCustomerPage(null, 1000);
+
+        verify(customerRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(4));
+    }
+
+    @Test
+    void getCustomerPageRejectsInvalidCursorAndSize() {
+        assertThrows(IllegalArgumentException.class, () -> customerService.getCustomerPage("not-a-cursor!", null));
+        assertThrows(IllegalArgumentException.class, () -> customerService.getCustomerPage(null, 0));
+    }
+
+    @Test
+    void searchCustomersByEmailUsesNormalizedKey() {
+        when(customerRepository.findByNormalizedEmailAndIdGreaterThanOrderByIdAsc("one@mail.com", 0L, Limit.of(3)))
+                .thenReturn(List.of(customer1));
+
+        CustomerPageResponse page = customerService.searchCustomers("  One@Mail.COM ", null, null, null, null);
+
+        assertEquals(1, page.getCustomers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void searchCustomersByPhoneMatchesDigitsOnly() {
+        when(customerRepository.findByNormalizedPhoneAndIdGreaterThanOrderByIdAsc("0111111111", 0L, Limit.of(3)))
+                .thenReturn(List.of(customer1));
+
+        CustomerPageResponse page = customerService.searchCustomers(null, "011-111 1111", null, null, null);
+
+        assertEquals("first", page.getCustomers().get(0).getFirstname());
+    }
+
+    @Test
+    void searchCustomersByNamePrefixPagesByNameAndId() {
+        CustomerEntity customer3 = new CustomerEntity(3L, "firstly", "lastname3", "0333333333", "three@mail.com");
+        customer1.normalize();
+        customer3.normalize();
+        when(customerRepository.findByNamePrefix("fir", "fis", "", 0L, Limit.of(3)))
+                .thenReturn(List.of(customer1, customer3, customer2));
+
+        CustomerPageResponse page = customerService.searchCustomers(null, null, " FIR", null, null);
+
+        assertEquals(2, page.getCustomers().size());
+        assertNotNull(page.getNextCursor());
+
+        when(customerRepository.findByNamePrefix("fir", "fis", "firstly lastname3", 3L, Limit.of(3)))
+                .thenReturn(List.of());
+
+        CustomerPageResponse nextPage = customerService.searchCustomers(null, null, "fir", page.getNextCursor(), null);
+
+        assertTrue(nextPage.getCustomers().isEmpty());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void searchCustomersByNamePrefixEndingInMaxCharDropsItFromTheUpperBound() {
+        when(customerRepository.findByNamePrefix(anyString(), any(), anyString(), anyLong(), any(Limit.class)))
+                .thenReturn(List.of());
+
+        customerService.searchCustomers(null, null, "fi\uffff\uffff", null, null);
+        customerService.searchCustomers(null, null, "\uffff\uffff", null, null);
+
+        verify(customerRepository).findByNamePrefix("fi\uffff\uffff", "fj", "", 0L, Limit.of(3));
+        verify(customerRepository).findByNamePrefix("\uffff\uffff", null, "", 0L, Limit.of(3));
+    }
+
+    @Test
+    void searchCustomersRequiresExactlyOneCriterion() {
+        assertThrows(IllegalArgumentException.class, () -> customerService.searchCustomers(null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.searchCustomers("one@mail.com", "0111111111", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> customerService.searchCustomers(null, "--", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> customerService.searchCustomers(null, null, "fir", "MQ", null));
+    }
+
+    @Test
+    void exportCustomersStreamsAndDetachesEveryRow() {
+        when(customerRepository.streamAllOrderById()).thenReturn(Stream.of(customer1, customer2));
+        List<CustomerResponse> exported = new ArrayList<>();
+
+        customerService.exportCustomers(exported::add);
+
+        assertEquals(2, exported.size());
+        assertEquals("second", exported.get(1).getFirstname());
+        verify(customerRepository).detach(customer1);
+        verify(customerRepository).detach(customer2);
+    }
+
+    @Test
+    void streamCustomersProjectedClosesTheStream() {
+        CustomerResponse response = new CustomerResponse(1L, "first", "lastname1", "0111111111", "one@mail.com");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(customerRepository.streamAllResponses())
+                .thenReturn(Stream.of(response).onClose(() -> closed.set(true)));
+        List<CustomerResponse> streamed = new ArrayList<>();
+
+        customerService.streamCustomersProjected(streamed::add);
+
+        assertEquals(List.of(response), streamed);
+        assertTrue(closed.get());
+        verify(customerRepository, never()).streamAllOrderById();
+    }
+
     @Test
     void getCustomerByIdReturnsCustomerResponse() {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer1));
@@ -57,6 +207,68 @@ public class CustomerServiceTest {
         assertEquals("first", customerResponse.get().getFirstname());
     }
 
+    @Test
+    void projectedReadsReturnRepositoryDtosWithoutLoadingEntities() {
+        CustomerResponse response = new CustomerResponse(1L, "first", "lastname1", "0111111111", "one@mail.com");
+        when(customerRepository.findResponseById(1L)).thenReturn(Optional.of(response));
+        when(customerRepository.findAllResponses()).thenReturn(List.of(response));
+
+        assertEquals(Optional.of(response), customerService.getCustomerByIdProjected(1L));
+        assertEquals(List.of(response), customerService.getAllCustomersProjected());
+        verify(customerRepository, never()).findById(any());
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    void getCustomerByIdServesRepeatReadsFromCache() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer1));
+
+        customerService.getCustomerById(1L);
+        Optional<CustomerResponse> cached = customerService.getCustomerById(1L);
+
+        assertEquals("first", cached.get().getFirstname());
+        verify(customerRepository, times(1)).findById(1L);
+        assertEquals(1, customerService.getCacheStats().getHitCount());
+        assertEquals(1, customerService.getCacheStats().getMissCount());
+    }
+
+    @Test
+    void writesRefreshAndInvalidateCachedCustomer() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer1));
+        customerService.getCustomerById(1L);
+
+        CustomerEntity renamed = new CustomerEntity(1L, "renamed", "lastname1", "0111111111", "one@mail.com");
+        when(customerRepository.save(customer1)).thenReturn(renamed);
+        customerService.updateCustomer(1L, new CustomerRequest(1L, "renamed", "lastname1", "0111111111", "one@mail.com"));
+
+        assertEquals("renamed", customerService.getCustomerByIdProjected(1L).get().getFirstname());
+        verify(customerRepository, never()).findResponseById(1L);
+
+        when(customerRepository.deleteOneById(1L)).thenReturn(1);
+        when(customerRepository.findResponseById(1L)).thenReturn(Optional.empty());
+        customerService.deleteCustomerById(1L);
+
+        assertTrue(customerService.getCustomerByIdProjected(1L).isEmpty());
+    }
+
+    @Test
+    void getCustomerVersionIsCachedAndRefreshedByUpdates() {
+        LocalDateTime created = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(customerRepository.findUpdateDateById(1L)).thenReturn(Optional.of(created));
+
+        assertEquals(Optional.of(created), customerService.getCustomerVersion(1L));
+        assertEquals(Optional.of(created), customerService.getCustomerVersion(1L));
+        verify(customerRepository, times(1)).findUpdateDateById(1L);
+
+        CustomerEntity updated = new CustomerEntity(1L, "first", "changed", "0111111111", "one@mail.com");
+        updated.setUpdateDate(created.plusHours(1));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer1));
+        when(customerRepository.save(customer1)).thenReturn(updated);
+        customerService.updateCustomer(1L, new CustomerRequest(1L, "first", "changed", "0111111111", "one@mail.com"));
+
+        assertEquals(Optional.of(created.plusHours(1)), customerService.getCustomerVersion(1L));
+    }
+
     @Test
     void getCustomerByIdReturnsEmptyForNonExistentId() {
         when(customerRepository.findById(10L)).thenReturn(Optional.empty());
@@ -77,6 +289,130 @@ public class CustomerServiceTest {
         assertEquals("lastname1", customerResponse.getLastname());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void createCustomersInsertsInChunks() {
+        AtomicLong sequence = new AtomicLong();
+        when(customerRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<CustomerEntity> chunk = invocation.getArgument(0);
+            chunk.forEach(customer -> customer.setId(sequence.incrementAndGet()));
+            return chunk;
+        });
+        List<CustomerRequest> requests = List.of(
+                new CustomerRequest(null, "a", "a", "01", "a@mail.com"),
+                new CustomerRequest(null, "b", "b", "02", "b@mail.com"),
+                new CustomerRequest(null, "c", "c", "03", "c@mail.com"));
+
+        BulkCreateResponse response = customerService.createCustomers(requests);
+
+        assertEquals(3, response.getCreated());
+        assertEquals(List.of(1L, 2L, 3L), response.getIds());
+        verify(customerRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    void createCustomersRejectsEmptyAndOversizedRequests() {
+        CustomerRequest request = new CustomerRequest(null, "a", "a", "01", "a@mail.com");
+
+        assertThrows(IllegalArgumentException.class, () -> customerService.createCustomers(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> customerService.createCustomers(List.of(
+                request, request, request, request, request, request)));
+        verify(customerRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void createCustomerRejectsExistingContactWithItsId() {
+        when(customerRepository.save(any(CustomerEntity.class))).thenAnswer(invocation -> {
+            CustomerEntity saved = invocation.getArgument(0);
+            saved.setId(7L);
+            saved.normalize();
+            return saved;
+        });
+        customerService.createCustomer(new CustomerRequest(null, "a", "a", "081-111-1111", "A@Mail.com"));
+        when(customerRepository.findIdByContact("a@mail.com", "0811111111")).thenReturn(Optional.of(7L));
+
+        DuplicateCustomerException e = assertThrows(DuplicateCustomerException.class, () ->
+                customerService.createCustomer(new CustomerRequest(null, "b", "b", "0811111111", " a@mail.com")));
+
+        assertEquals(7L, e.getExistingId());
+        verify(customerRepository, times(1)).save(any());
+    }
+
+    @Test
+    void createCustomerDropsStaleIndexEntries() {
+        when(customerRepository.streamContacts()).thenReturn(Stream.of(new CustomerContact(7L, "a@mail.com", "01")));
+        contactIndex.rebuild();
+        when(customerRepository.save(any(CustomerEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Customer 7 has since been deleted: the lookup confirms the hit and finds nothing.
+        customerService.createCustomer(new CustomerRequest(null, "a", "a", "01", "a@mail.com"));
+
+        verify(customerRepository).findIdByContact("a@mail.com", "01");
+        verify(customerRepository).save(any());
+    }
+
+    @Test
+    void createCustomerTranslatesUniqueIndexViolation() {
+        when(customerRepository.save(any(CustomerEntity.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_CUSTOMER_CONTACT\"")));
+        when(customerRepository.findIdByContact("a@mail.com", "01")).thenReturn(Optional.of(9L));
+
+        DuplicateCustomerException e = assertThrows(DuplicateCustomerException.class, () ->
+                customerService.createCustomer(new CustomerRequest(null, "a", "a", "01", "a@mail.com")));
+
+        assertEquals(9L, e.getExistingId());
+    }
+
+    @Test
+    void createCustomersRejectsDuplicatesBeforeInserting() {
+        when(customerRepository.streamContacts()).thenReturn(Stream.of(new CustomerContact(4L, "d@mail.com", "04")));
+        contactIndex.rebuild();
+        when(customerRepository.findIdByContact("d@mail.com", "04")).thenReturn(Optional.of(4L));
+
+        assertThrows(IllegalArgumentException.class, () -> customerService.createCustomers(List.of(
+                new CustomerRequest(null, "a", "a", "01", "a@mail.com"),
+                new CustomerRequest(null, "b", "b", "0-1", "A@mail.com"))));
+        DuplicateCustomerException e = assertThrows(DuplicateCustomerException.class, () ->
+                customerService.createCustomers(List.of(
+                        new CustomerRequest(null, "a", "a", "01", "a@mail.com"),
+                        new CustomerRequest(null, "d", "d", "04", "d@mail.com"))));
+        assertEquals(4L, e.getExistingId());
+        verify(customerRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void updateCustomerRejectsAnotherCustomersContact() {
+        customer1.normalize();
+        when(customerRepository.streamContacts()).thenReturn(Stream.of(
+                new CustomerContact(1L, "one@mail.com", "0111111111"),
+                new CustomerContact(2L, "two@mail.com", "02222222222")));
+        contactIndex.rebuild();
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer1));
+        when(customerRepository.findIdByContact("two@mail.com", "02222222222")).thenReturn(Optional.of(2L));
+
+        DuplicateCustomerException e = assertThrows(DuplicateCustomerException.class, () ->
+                customerService.updateCustomer(1L, new CustomerRequest(1L, "first", "x", "02222222222", "two@mail.com")));
+
+        assertEquals(2L, e.getExistingId());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    void patchCustomerRejectsAnotherCustomersContact() {
+        when(customerRepository.streamContacts()).thenReturn(Stream.of(new CustomerContact(2L, "two@mail.com", "02")));
+        contactIndex.rebuild();
+        when(customerRepository.findContactById(1L))
+                .thenReturn(Optional.of(new CustomerContact(1L, "one@mail.com", "02")));
+        when(customerRepository.findIdByContact("two@mail.com", "02")).thenReturn(Optional.of(2L));
+
+        DuplicateCustomerException e = assertThrows(DuplicateCustomerException.class, () ->
+                customerService.patchCustomer(1L, new CustomerPatchRequest(null, null, null, "Two@mail.com")));
+
+        assertEquals(2L, e.getExistingId());
+        verify(customerRepository, never()).patchById(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void updateCustomerReturnsUpdatedCustomerResponse() {
         CustomerRequest updatedCustomerRequest = new CustomerRequest(1L,"first", "lastname1", "0111111111", "one@mail.com");
@@ -100,19 +436,70 @@ public class CustomerServiceTest {
         });
     }
 
+    @Test
+    void patchCustomerIssuesSingleUpdateAndEvictsCache() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer1));
+        customerService.getCustomerById(1L);
+        when(customerRepository.findContactById(1L))
+                .thenReturn(Optional.of(new CustomerContact(1L, "one@mail.com", "0111111111")));
+        when(customerRepository.patchById(eq(1L), isNull(), isNull(), eq("081-234-5678"), isNull(),
+                eq("0812345678"), isNull(), any(LocalDateTime.class))).thenReturn(1);
+
+        customerService.patchCustomer(1L, new CustomerPatchRequest(null, null, "081-234-5678", null));
+
+        verify(customerRepository, never()).save(any());
+        customerService.getCustomerById(1L);
+        verify(customerRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void patchCustomerThrowsWhenNoRowUpdated() {
+        when(customerRepository.patchById(eq(10L), any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(CustomerNotFoundException.class,
+                () -> customerService.patchCustomer(10L, new CustomerPatchRequest("name", null, null, null)));
+    }
+
+    @Test
+    void patchCustomerRejectsEmptyAndBlankFields() {
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.patchCustomer(1L, new CustomerPatchRequest()));
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.patchCustomer(1L, new CustomerPatchRequest(" ", null, null, null)));
+        verify(customerRepository, never()).patchById(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void deleteCustomerByIdReturnsTrue() {
-        when(customerRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(customerRepository).deleteById(1L);
+        when(customerRepository.deleteOneById(1L)).thenReturn(1);
 
         boolean result = customerService.deleteCustomerById(1L);
 
         assertTrue(result);
+        verify(customerRepository, never()).existsById(any());
+        verify(customerRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void successfulWritesArePublishedToTheChangeFeed() {
+        when(customerRepository.save(any(CustomerEntity.class))).thenAnswer(invocation -> {
+            CustomerEntity saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        when(customerRepository.deleteOneById(1L)).thenReturn(1);
+        when(customerRepository.deleteOneById(2L)).thenReturn(0);
+
+        customerService.createCustomer(new CustomerRequest(null, "a", "a", "01", "a@mail.com"));
+        customerService.deleteCustomerById(1L);
+        assertThrows(CustomerNotFoundException.class, () -> customerService.deleteCustomerById(2L));
+
+        assertEquals(2, changeFeed.head());
     }
 
     @Test
     void deleteCustomerByIdThrowsCustomerNotFoundException() {
-        when(customerRepository.existsById(1L)).thenReturn(false);
+        when(customerRepository.deleteOneById(1L)).thenReturn(0);
 
         assertThrows(CustomerNotFoundException.class, () -> {
             customerService.deleteCustomerById(1L);
@@ -120,4 +507,25 @@ public class CustomerServiceTest {
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    void deleteCustomersDeletesInChunksAndReportsPerId() {
+        when(customerRepository.deleteAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(customerRepository.deleteAllByIdIn(List.of(3L))).thenReturn(List.of(3L));
+
+        BulkDeleteResponse response = customerService.deleteCustomers(List.of(1L, 2L, 1L, 3L));
+
+        assertEquals(2, response.getDeleted());
+        assertEquals(List.of(1L, 3L), response.getDeletedIds());
+        assertEquals(List.of(2L), response.getNotFoundIds());
+    }
+
+    @Test
+    void deleteCustomersRejectsEmptyNullAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> customerService.deleteCustomers(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> customerService.deleteCustomers(Arrays.asList(1L, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.deleteCustomers(List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+        verify(customerRepository, never()).deleteAllByIdIn(any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.model.request.RegisterRequest;
+import com.example.customerservice.model.response.BulkRegisterResponse;
+import com.example.customerservice.model.response.BulkRegisterResult;
+import com.example.customerservice.model.response.BulkRegisterResult.Status;
+import com.example.customerservice.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProvisioningServiceTest {
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private UserProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID().toString())
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table users (username varchar(50) not null primary key, "
+                + "password varchar(500) not null, enabled boolean not null)");
+        jdbcTemplate.execute("create table authorities (id bigint generated by default as identity primary key, "
+                + "username varchar(50) not null, authority varchar(50) not null, unique (username, authority))");
+        jdbcTemplate.update("insert into users values ('admin', 'hash', true)");
+        passwordHashingExecutor = new PasswordHashingExecutor(2, 4, 5000);
+        service = new UserProvisioningService(jdbcTemplate, new DataSourceTransactionManager(database),
+                passwordEncoder, passwordHashingExecutor, 3, 10, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+        database.shutdown();
+    }
+
+    @Test
+    void createsUsersAndAuthoritiesAcrossChunks() {
+        List<RegisterRequest> users = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            users.add(new RegisterRequest("user" + i, "password" + i, i % 2 == 0 ? "USER" : "ADMIN"));
+        }
+
+        BulkRegisterResponse response = service.registerUsers(users);
+
+        assertEquals(7, response.getCreated());
+        assertEquals(0, response.getRejected());
+        assertTrue(response.getResults().stream().allMatch(result -> result.getStatus() == Status.CREATED));
+        String hash = jdbcTemplate.queryForObject("select password from users where username = 'user3'", String.class);
+        assertTrue(passwordEncoder.matches("password3", hash));
+        assertEquals("ROLE_ADMIN", jdbcTemplate.queryForObject(
+                "select authority from authorities where username = 'user3'", String.class));
+        assertEquals(7, jdbcTemplate.queryForObject("select count(*) from authorities", Integer.class));
+        assertEquals(7, meterRegistry.get("auth.users.provisioned").tag("result", "created").counter().count());
+    }
+
+    @Test
+    void reportsInvalidExistingAndDuplicateRowsWithoutFailingTheRest() {
+        List<RegisterRequest> users = List.of(
+                new RegisterRequest("alice", "secret", "USER"),
+                new RegisterRequest("admin", "secret", "ADMIN"),
+                new RegisterRequest("bob", "", "USER"),
+                new RegisterRequest("alice", "other", "USER"),
+                new RegisterRequest("carol", "secret", "ROLE_USER"),
+                new RegisterRequest("x".repeat(51), "secret", "USER"));
+
+        BulkRegisterResponse response = service.registerUsers(users);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(5, response.getRejected());
+        assertEquals(List.of(Status.CREATED, Status.EXISTS, Status.INVALID, Status.EXISTS, Status.INVALID, Status.INVALID),
+                response.getResults().stream().map(BulkRegisterResult::getStatus).toList());
+        assertEquals("Username already exists", response.getResults().get(1).getMessage());
+        assertEquals("Duplicate username in request", response.getResults().get(3).getMessage());
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> service.registerUsers(List.of()));
+        List<RegisterRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(new RegisterRequest("user" + i, "password", "USER"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.registerUsers(tooMany));
+    }
+}
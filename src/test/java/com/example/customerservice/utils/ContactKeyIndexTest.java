@@ -0,0 +1,66 @@
+package com.example.customerservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactKeyIndexTest {
+
+    @Test
+    void keyIsZeroOnlyWhenAContactIsMissing() {
+        assertEquals(0, ContactKeyIndex.key(null, "0811111111"));
+        assertEquals(0, ContactKeyIndex.key("a@example.com", null));
+        assertNotEquals(0, ContactKeyIndex.key("", ""));
+        assertEquals(ContactKeyIndex.key("a@example.com", "081"), ContactKeyIndex.key("a@example.com", "081"));
+        assertNotEquals(ContactKeyIndex.key("ab", "1"), ContactKeyIndex.key("a", "b1"));
+    }
+
+    @Test
+    void putGetAndRemove() {
+        ContactKeyIndex index = new ContactKeyIndex(10);
+        long key = ContactKeyIndex.key("a@example.com", "081");
+
+        assertEquals(0, index.get(key));
+        index.put(key, 7);
+        assertEquals(7, index.get(key));
+        assertEquals(1, index.size());
+
+        assertFalse(index.remove(key, 8));
+        assertEquals(7, index.get(key));
+        assertTrue(index.remove(key, 7));
+        assertEquals(0, index.get(key));
+        assertEquals(0, index.size());
+
+        index.put(key, 9);
+        assertEquals(9, index.get(key));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void ignoresMissingKeysAndIds() {
+        ContactKeyIndex index = new ContactKeyIndex(10);
+
+        index.put(0, 7);
+        index.put(ContactKeyIndex.key("a@example.com", "081"), 0);
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void growsPastItsInitialCapacityWithoutLosingEntries() {
+        ContactKeyIndex index = new ContactKeyIndex(0);
+        int entries = 10_000;
+        for (int i = 1; i <= entries; i++) {
+            index.put(ContactKeyIndex.key("customer" + i + "@example.com", "08" + i), i);
+        }
+        for (int i = 1; i <= entries; i += 2) {
+            index.remove(ContactKeyIndex.key("customer" + i + "@example.com", "08" + i), i);
+        }
+
+        assertEquals(entries / 2, index.size());
+        for (int i = 1; i <= entries; i++) {
+            long expected = i % 2 == 0 ? i : 0;
+            assertEquals(expected, index.get(ContactKeyIndex.key("customer" + i + "@example.com", "08" + i)));
+        }
+    }
+}
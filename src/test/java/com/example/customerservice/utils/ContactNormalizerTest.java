@@ -0,0 +1,35 @@
+package com.example.customerservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactNormalizerTest {
+
+    @Test
+    void emailIsTrimmedAndLowercased() {
+        assertEquals("john.doe@mail.com", ContactNormalizer.email("  John.Doe@Mail.COM "));
+        assertNull(ContactNormalizer.email("   "));
+        assertNull(ContactNormalizer.email(null));
+    }
+
+    @Test
+    void phoneKeepsDigitsOnly() {
+        assertEquals("66812345678", ContactNormalizer.phone("+66 (81) 234-5678"));
+        assertNull(ContactNormalizer.phone("n/a"));
+        assertNull(ContactNormalizer.phone(null));
+    }
+
+    @Test
+    void nameJoinsFirstAndLastnameInLowercase() {
+        assertEquals("john doe", ContactNormalizer.name(" John ", "DOE"));
+        assertEquals("john", ContactNormalizer.name("John", null));
+        assertNull(ContactNormalizer.name(null, " "));
+    }
+
+    @Test
+    void namePrefixCollapsesWhitespace() {
+        assertEquals("john d", ContactNormalizer.namePrefix("  John   D"));
+        assertNull(ContactNormalizer.namePrefix(" "));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.customerservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFieldsWithLineNumbers() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,b,c\r\n\"x, y\",\"say \"\"hi\"\"\",\"two\nlines\"\nlast,,\n"));
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("x, y", "say \"hi\"", "two\nlines"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("last", "", ""), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\nc,d"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of(""), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a\n\"open,b\n"));
+        reader.next();
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.customerservice.utils;
 
+import com.example.customerservice.security.JwtKeyRing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import javax.crypto.SecretKey;
-
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,12 +29,21 @@ class JwtUtilsTest {
     @Mock
     private UserDetails userDetails;
 
+    @TempDir
+    private Path keyDir;
+
+    private JwtKeyRing keyRing;
+
     private JwtUtils jwtUtils;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp(){
         MockitoAnnotations.openMocks(this);
-        jwtUtils = new JwtUtils("ewyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9sdfwecvwesrew", 6000000);
+        meterRegistry = new SimpleMeterRegistry();
+        keyRing = new JwtKeyRing(keyDir.toString(), 604800000, 86400000, 600000);
+        jwtUtils = new JwtUtils(keyRing, 6000000, 86400000, 100, 1000, 100000, meterRegistry);
     }
 
     @Test
@@ -94,11 +111,131 @@ class JwtUtilsTest {
 
     @Test
     void isValidReturnsFalseForExpiredToken() {
-        JwtUtils jwtUtils = new JwtUtils("ewyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9sdfwecvwesrew", -1);
+        JwtUtils jwtUtils = new JwtUtils(keyRing, -1, 86400000, 100, 1000, 100000, new SimpleMeterRegistry());
         when(userDetails.getUsername()).thenReturn("testUser");
         String expiredToken = jwtUtils.generateTokenFromUsername(userDetails);
         boolean isValid = jwtUtils.isValid(expiredToken);
         assertFalse(isValid);
     }
 
-}
\ No newline at end of file
+    @Test
+    void getValidatedClaimsReturnsClaimsForValidToken() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtUtils.generateTokenFromUsername(userDetails);
+
+        Optional<Claims> claims = jwtUtils.getValidatedClaims(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("testUser", claims.get().getSubject());
+    }
+
+    @Test
+    void getValidatedClaimsServesRepeatTokensFromCache() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtUtils.generateTokenFromUsername(userDetails);
+
+        Claims first = jwtUtils.getValidatedClaims(token).orElseThrow();
+        Claims second = jwtUtils.getValidatedClaims(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void getValidatedClaimsRejectsTamperedToken() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtUtils.generateTokenFromUsername(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtils.getValidatedClaims(tampered).isEmpty());
+        assertTrue(jwtUtils.getValidatedClaims(null).isEmpty());
+    }
+
+    @Test
+    void getAuthoritiesFromClaimsReturnsSignedRoles() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_USER"))).when(userDetails).getAuthorities();
+        String token = jwtUtils.generateTokenFromUsername(userDetails);
+
+        List<GrantedAuthority> authorities = jwtUtils.getAuthoritiesFromClaims(jwtUtils.getValidatedClaims(token).orElseThrow());
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), authorities);
+    }
+
+    @Test
+    void recordsSignVerifyAndValidationOutcomes() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtUtils.generateTokenFromUsername(userDetails);
+
+        jwtUtils.getValidatedClaims(token);
+        jwtUtils.getValidatedClaims(token);
+        jwtUtils.getValidatedClaims("invalidToken");
+        jwtUtils.getValidatedClaims(null);
+
+        assertEquals(1, meterRegistry.get("jwt.sign").timer().count());
+        // The cached repeat skips verification; the malformed token is still timed.
+        assertEquals(2, meterRegistry.get("jwt.verify").timer().count());
+        assertEquals(2, meterRegistry.get("jwt.validations").tag("outcome", "valid").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.validations").tag("outcome", "invalid").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.validations").tag("outcome", "missing").counter().count());
+        assertEquals(0, meterRegistry.get("jwt.validations").tag("outcome", "expired").counter().count());
+    }
+
+    @Test
+    void revokedAccessTokenIsRejectedEvenWhenCached() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtUtils.generateTokenFromUsername(userDetails);
+        Claims claims = jwtUtils.getValidatedClaims(token).orElseThrow();
+        assertNotNull(claims.getId());
+
+        assertTrue(jwtUtils.revoke(claims));
+        assertFalse(jwtUtils.revoke(claims));
+
+        assertTrue(jwtUtils.getValidatedClaims(token).isEmpty());
+        assertEquals(1, meterRegistry.get("jwt.validations").tag("outcome", "revoked").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.revoked").gauge().value());
+        assertEquals(100000, meterRegistry.get("jwt.revoked.max").gauge().value());
+    }
+
+    @Test
+    void refreshAndAccessTokensAreNotInterchangeable() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String access = jwtUtils.generateTokenFromUsername(userDetails);
+        String refresh = jwtUtils.generateRefreshToken(userDetails);
+
+        assertTrue(jwtUtils.getValidatedClaims(refresh).isEmpty());
+        assertTrue(jwtUtils.getValidatedRefreshClaims(access).isEmpty());
+        Claims refreshClaims = jwtUtils.getValidatedRefreshClaims(refresh).orElseThrow();
+        assertEquals("testUser", refreshClaims.getSubject());
+        assertNull(refreshClaims.get("roles"));
+
+        jwtUtils.revoke(refreshClaims);
+        assertTrue(jwtUtils.getValidatedRefreshClaims(refresh).isEmpty());
+    }
+
+    @Test
+    void tokensSignedByAnotherInstanceSharingTheKeyDirectoryAreAccepted() {
+        JwtUtils otherNode = new JwtUtils(new JwtKeyRing(keyDir.toString(), 604800000, 86400000, 600000),
+                6000000, 86400000, 100, 1000, 100000, new SimpleMeterRegistry());
+        when(userDetails.getUsername()).thenReturn("testUser");
+
+        String token = otherNode.generateTokenFromUsername(userDetails);
+
+        assertEquals("testUser", jwtUtils.getValidatedClaims(token).orElseThrow().getSubject());
+    }
+
+    @Test
+    void tokensSignedWithAnUnknownKeyAreRejected(@TempDir Path otherKeyDir) {
+        JwtUtils otherService = new JwtUtils(new JwtKeyRing(otherKeyDir.toString(), 604800000, 86400000, 600000),
+                6000000, 86400000, 100, 1000, 100000, new SimpleMeterRegistry());
+        when(userDetails.getUsername()).thenReturn("testUser");
+
+        assertTrue(jwtUtils.getValidatedClaims(otherService.generateTokenFromUsername(userDetails)).isEmpty());
+        String hmacToken = Jwts.builder()
+                .header().keyId(keyRing.signingKey().kid()).and()
+                .claim("type", "access")
+                .subject("testUser")
+                .signWith(Jwts.SIG.HS256.key().build())
+                .compact();
+        assertTrue(jwtUtils.getValidatedClaims(hmacToken).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.customerservice.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RateLimitedLoggerTest {
+
+    private Logger delegate;
+    private AtomicLong clock;
+    private RateLimitedLogger log;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(Logger.class);
+        when(delegate.isErrorEnabled()).thenReturn(true);
+        when(delegate.isWarnEnabled()).thenReturn(true);
+        clock = new AtomicLong();
+        log = new RateLimitedLogger(delegate, 2, Duration.ofSeconds(10), clock::get);
+    }
+
+    @Test
+    void dropsMessagesAboveTheLimitWithinAWindow() {
+        for (int i = 0; i < 5; i++) {
+            log.error("bad token: {}", i);
+        }
+
+        verify(delegate, times(2)).error(eq("bad token: {}"), any(Object[].class));
+        verify(delegate, never()).error(eq("Suppressed {} similar messages"), any(Object.class));
+    }
+
+    @Test
+    void reportsSuppressedCountInTheNextWindow() {
+        for (int i = 0; i < 5; i++) {
+            log.warn("bad token: {}", i);
+        }
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        log.warn("bad token: {}", 5);
+
+        verify(delegate).warn("Suppressed {} similar messages", 3L);
+        verify(delegate, times(3)).warn(eq("bad token: {}"), any(Object[].class));
+    }
+
+    @Test
+    void skipsDisabledLevels() {
+        when(delegate.isErrorEnabled()).thenReturn(false);
+
+        log.error("bad token: {}", 1);
+
+        verify(delegate, never()).error(anyString(), any(Object[].class));
+    }
+}
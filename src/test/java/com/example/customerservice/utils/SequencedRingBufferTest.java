@@ -0,0 +1,116 @@
+package com.example.customerservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequencedRingBufferTest {
+
+    @Test
+    void numbersValuesFromOneAndReadsThemInOrder() {
+        SequencedRingBuffer<String> ring = new SequencedRingBuffer<>(8);
+
+        assertEquals(0, ring.head());
+        assertEquals(1, ring.publish("a1"));
+        assertEquals(2, ring.publish("b2"));
+
+        List<String> values = new ArrayList<>();
+        assertEquals(2, ring.read(1, 10, values));
+        assertEquals(List.of("a1", "b2"), values);
+        assertEquals(0, ring.read(3, 10, values));
+        assertEquals(2, ring.head());
+    }
+
+    @Test
+    void readsAtMostMaxValues() {
+        SequencedRingBuffer<Long> ring = new SequencedRingBuffer<>(8);
+        for (long i = 1; i <= 5; i++) {
+            ring.publish(i);
+        }
+
+        List<Long> values = new ArrayList<>();
+        assertEquals(2, ring.read(2, 2, values));
+        assertEquals(List.of(2L, 3L), values);
+    }
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(8, new SequencedRingBuffer<>(5).capacity());
+        assertEquals(8, new SequencedRingBuffer<>(8).capacity());
+        assertEquals(2, new SequencedRingBuffer<>(0).capacity());
+    }
+
+    @Test
+    void reportsOverwrittenValues() {
+        SequencedRingBuffer<Long> ring = new SequencedRingBuffer<>(4);
+        for (long i = 1; i <= 10; i++) {
+            ring.publish(i);
+        }
+
+        List<Long> values = new ArrayList<>();
+        assertEquals(-1, ring.read(6, 10, values));
+        assertTrue(values.isEmpty());
+        assertEquals(4, ring.read(7, 10, values));
+        assertEquals(List.of(7L, 8L, 9L, 10L), values);
+    }
+
+    @Test
+    void concurrentPublishersNeverShareOrSkipASequence() throws Exception {
+        SequencedRingBuffer<Long> ring = new SequencedRingBuffer<>(1 << 16);
+        int threads = 4;
+        int perThread = 10_000;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        long sequence = ring.claim();
+                        ring.store(sequence, sequence);
+                    }
+                });
+            }
+        }
+
+        List<Long> values = new ArrayList<>();
+        assertEquals(threads * perThread, ring.read(1, Integer.MAX_VALUE, values));
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i + 1, values.get(i));
+        }
+    }
+
+    @Test
+    void writerStalledForALapDoesNotOverwriteTheNewerValue() {
+        SequencedRingBuffer<String> ring = new SequencedRingBuffer<>(4);
+        long stalled = ring.claim();
+        for (int i = 0; i < 4; i++) {
+            ring.publish("v" + (stalled + 1 + i));
+        }
+
+        ring.store(stalled, "stale");
+
+        List<String> values = new ArrayList<>();
+        assertEquals(1, ring.read(stalled + 4, 10, values));
+        assertEquals(List.of("v" + (stalled + 4)), values);
+        assertEquals(-1, ring.read(stalled, 10, values));
+    }
+
+    @Test
+    void valueMissingFarBehindTheHeadIsReportedLost() {
+        SequencedRingBuffer<String> ring = new SequencedRingBuffer<>(8);
+        long stalled = ring.claim();
+        for (int i = 0; i < 3; i++) {
+            ring.publish("later");
+        }
+
+        List<String> values = new ArrayList<>();
+        assertEquals(0, ring.read(stalled, 10, values), "within the grace period the value may still arrive");
+
+        ring.publish("later");
+        assertEquals(-1, ring.read(stalled, 10, values));
+        assertTrue(values.isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.customerservice.utils;
+
+import com.example.customerservice.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final long IN_AN_HOUR = System.currentTimeMillis() + 3_600_000;
+
+    @Test
+    void reportsRevokedIdsOnly() {
+        TokenRevocationList revocations = new TokenRevocationList(100, 1000);
+
+        assertTrue(revocations.revoke("jti-1", IN_AN_HOUR));
+        assertFalse(revocations.revoke("jti-1", IN_AN_HOUR));
+
+        assertTrue(revocations.isRevoked("jti-1"));
+        assertFalse(revocations.isRevoked("jti-2"));
+    }
+
+    @Test
+    void pruneDropsExpiredIdsAndKeepsLiveOnes() {
+        TokenRevocationList revocations = new TokenRevocationList(100, 1000);
+        revocations.revoke("expired", System.currentTimeMillis() - 1);
+        revocations.revoke("live", IN_AN_HOUR);
+
+        assertFalse(revocations.isRevoked("expired"));
+        revocations.prune();
+
+        assertEquals(1, revocations.size());
+        assertTrue(revocations.isRevoked("live"));
+    }
+
+    @Test
+    void neverMissesARevokedIdBeyondItsExpectedCapacity() {
+        TokenRevocationList revocations = new TokenRevocationList(10, 1000);
+        String[] ids = new String[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            revocations.revoke(ids[i], IN_AN_HOUR);
+        }
+        revocations.prune();
+
+        for (String id : ids) {
+            assertTrue(revocations.isRevoked(id));
+        }
+        assertFalse(revocations.isRevoked(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void failsClosedOnceFullUntilExpiredIdsArePruned() {
+        TokenRevocationList revocations = new TokenRevocationList(10, 2);
+        revocations.revoke("expiring", System.currentTimeMillis() - 1);
+        revocations.revoke("live", IN_AN_HOUR);
+
+        assertThrows(ServiceBusyException.class, () -> revocations.revoke("another", IN_AN_HOUR));
+        assertFalse(revocations.revoke("live", IN_AN_HOUR), "an id already held is still reported as revoked");
+        assertFalse(revocations.isRevoked("another"));
+        assertEquals(2, revocations.size());
+
+        revocations.prune();
+        assertTrue(revocations.revoke("another", IN_AN_HOUR));
+        assertTrue(revocations.isRevoked("another"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.customerservice.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void returnsCachedClaimsForTheSameToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claimsExpiringIn(60_000);
+
+        cache.put("token", claims);
+
+        assertSame(claims, cache.get("token"));
+        assertNull(cache.get("other-token"));
+    }
+
+    @Test
+    void dropsTokensOnceTheyExpire() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        cache.put("expired", claimsExpiringIn(-1_000));
+        cache.put("short-lived", claimsExpiringIn(50));
+        cache.put("no-expiry", Jwts.claims().subject("user").build());
+        Thread.sleep(100);
+
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("short-lived"));
+        assertNull(cache.get("no-expiry"));
+    }
+
+    @Test
+    void staysWithinItsSizeWhileAcceptingNewTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, claimsExpiringIn(60_000));
+        }
+
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void cachesNothingWhenSizeIsZero() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+
+        cache.put("token", claimsExpiringIn(60_000));
+
+        assertNull(cache.get("token"));
+    }
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims().subject("user").expiration(new Date(System.currentTimeMillis() + millis)).build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.customerservice.web;
+
+import com.example.customerservice.logging.SampledRequestTurboFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSamplingFilterTest {
+
+    @Test
+    void marksSampledRequestsForTheirDurationOnly() throws Exception {
+        LogSamplingFilter filter = new LogSamplingFilter(1);
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (req, res) -> seen.set(MDC.get(SampledRequestTurboFilter.MDC_KEY)));
+
+        assertEquals("true", seen.get());
+        assertNull(MDC.get(SampledRequestTurboFilter.MDC_KEY));
+    }
+
+    @Test
+    void samplesNothingWhenDisabled() throws Exception {
+        LogSamplingFilter filter = new LogSamplingFilter(0);
+        AtomicReference<String> seen = new AtomicReference<>("unset");
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (req, res) -> seen.set(MDC.get(SampledRequestTurboFilter.MDC_KEY)));
+
+        assertNull(seen.get());
+    }
+}